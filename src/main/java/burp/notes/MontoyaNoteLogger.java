@@ -0,0 +1,22 @@
+package burp.notes;
+
+import burp.api.montoya.logging.Logging;
+import burp.notes.core.NoteLogger;
+
+public class MontoyaNoteLogger implements NoteLogger {
+    private final Logging logging;
+
+    public MontoyaNoteLogger(Logging logging) {
+        this.logging = logging;
+    }
+
+    @Override
+    public void logToOutput(String message) {
+        logging.logToOutput(message);
+    }
+
+    @Override
+    public void logToError(String message) {
+        logging.logToError(message);
+    }
+}
@@ -3,33 +3,83 @@ package burp.notes;
 import burp.api.montoya.BurpExtension;
 import burp.api.montoya.MontoyaApi;
 import burp.api.montoya.logging.Logging;
+import burp.notes.core.IndicatorIndex;
+import burp.notes.core.NoteLogger;
+import burp.notes.core.NoteManager;
+import burp.notes.proxy.IndicatorProxyHandler;
+import burp.notes.sync.SyncScheduler;
 import burp.notes.ui.NotesPanel;
 
 public class NotesExtension implements BurpExtension {
     private MontoyaApi montoyaApi;
     private Logging logging;
-    private NotesPanel notesPanel;
+    private NotesTab notesTab;
+    private IndicatorIndex indicatorIndex;
+    private SyncScheduler syncScheduler;
 
     @Override
     public void initialize(MontoyaApi api) {
         this.montoyaApi = api;
         this.logging = api.logging();
+        StartupTimer startupTimer = new StartupTimer(logging);
 
         logging.logToOutput("Notes+ Extension Initializing...");
 
-        notesPanel = new NotesPanel(montoyaApi);
-        NotesTab notesTab = new NotesTab(montoyaApi, notesPanel);
+        NoteLogger noteLogger = new MontoyaNoteLogger(logging);
+        NoteManager noteManager = new NoteManager(noteLogger);
+
+        // Everything expensive is deferred: the panel and the Markdown renderer are only
+        // built when the tab is first shown.
+        notesTab = new NotesTab(montoyaApi, noteManager);
 
         montoyaApi.userInterface().registerSuiteTab("NotesPlus", notesTab.getUiComponent());
+        montoyaApi.extension().registerUnloadingHandler(this::extensionUnloaded);
+
+        // The automaton starts empty and is filled in the background after startup, so neither
+        // initialize() nor proxy traffic ever waits on reading the notes.
+        indicatorIndex = new IndicatorIndex(noteManager, noteLogger);
+        noteManager.addNoteListener(indicatorIndex);
+        indicatorIndex.start();
+        IndicatorProxyHandler proxyHandler = new IndicatorProxyHandler(indicatorIndex);
+        montoyaApi.proxy().registerRequestHandler(proxyHandler);
+        montoyaApi.proxy().registerResponseHandler(proxyHandler);
+
+        startSync();
 
         logging.logToOutput(
                 "Notes+ Extension Loaded Successfully.\nVersion: v2025.1.3\nAuthor: ALPEREN ERGEL (@alpernae)");
+        startupTimer.report("initialize (Burp load time contribution)");
+    }
+
+    private void startSync() {
+        // Config and engine set-up touch the shared directory, so they run on the sync thread, not here.
+        syncScheduler = new SyncScheduler(NoteManager.defaultNotesDirectory(), new MontoyaNoteLogger(logging),
+                report -> {
+                    if (!report.hasLocalChanges()) {
+                        return;
+                    }
+                    indicatorIndex.reloadAll();
+                    NotesPanel notesPanel = notesTab.getNotesPanel();
+                    if (notesPanel != null) {
+                        notesPanel.refreshNotesList();
+                    }
+                });
+        syncScheduler.start();
     }
 
     public void extensionUnloaded() {
+        if (syncScheduler != null) {
+            syncScheduler.close();
+            syncScheduler = null;
+        }
+        if (indicatorIndex != null) {
+            indicatorIndex.close();
+            indicatorIndex = null;
+        }
+        NotesPanel notesPanel = notesTab == null ? null : notesTab.getNotesPanel();
         if (notesPanel != null) {
             notesPanel.cleanup();
-            logging.logToOutput("Notes+ Extension unloaded and cleaned up successfully.");
         }
+        logging.logToOutput("Notes+ Extension unloaded and cleaned up successfully.");
     }
 }
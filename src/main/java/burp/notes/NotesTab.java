@@ -1,15 +1,83 @@
 package burp.notes;
 
 import burp.api.montoya.MontoyaApi;
+import burp.notes.core.NoteManager;
+import burp.notes.core.NoteRenderer;
 import burp.notes.ui.NotesPanel;
 
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import java.awt.BorderLayout;
 import java.awt.Component;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Suite tab that registers a lightweight placeholder with Burp and only builds
+ * the {@link NotesPanel} (Swing components, preview pane and the notes
+ * directory scan) and the Markdown renderer the first time the tab is shown.
+ * The renderer loads and warms up on a background thread while the panel is
+ * already usable; the preview fills in once it is ready.
+ */
 public class NotesTab {
-    private final NotesPanel notesPanel;
+    private final MontoyaApi montoyaApi;
+    private final NoteManager noteManager;
+    private final JPanel container = new JPanel(new BorderLayout());
+    private volatile NotesPanel notesPanel;
 
-    public NotesTab(MontoyaApi montoyaApi, NotesPanel notesPanel) {
-        this.notesPanel = notesPanel;
+    public NotesTab(MontoyaApi montoyaApi, NoteManager noteManager) {
+        this.montoyaApi = montoyaApi;
+        this.noteManager = noteManager;
+
+        container.add(new JLabel("Loading Notes+...", SwingConstants.CENTER), BorderLayout.CENTER);
+        container.addHierarchyListener(new HierarchyListener() {
+            @Override
+            public void hierarchyChanged(HierarchyEvent e) {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && container.isShowing()) {
+                    container.removeHierarchyListener(this);
+                    createNotesPanel();
+                }
+            }
+        });
+    }
+
+    private void createNotesPanel() {
+        if (notesPanel != null) {
+            return;
+        }
+        StartupTimer timer = new StartupTimer(montoyaApi.logging());
+        NotesPanel panel = new NotesPanel(montoyaApi, noteManager, warmUpRenderer());
+        container.removeAll();
+        container.add(panel, BorderLayout.CENTER);
+        container.revalidate();
+        container.repaint();
+        notesPanel = panel;
+        timer.report("building the Notes+ tab on first show");
+    }
+
+    private CompletableFuture<NoteRenderer> warmUpRenderer() {
+        CompletableFuture<NoteRenderer> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            StartupTimer timer = new StartupTimer(montoyaApi.logging());
+            try {
+                NoteRenderer renderer = new NoteRenderer();
+                renderer.warmUp();
+                timer.report("Markdown renderer warm-up (background)");
+                future.complete(renderer);
+            } catch (RuntimeException | LinkageError e) {
+                future.completeExceptionally(e);
+            }
+        }, "notesplus-warmup");
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    /** Returns the notes panel, or {@code null} if the tab has not been shown yet. */
+    public NotesPanel getNotesPanel() {
+        return notesPanel;
     }
 
     public String getTabCaption() {
@@ -17,6 +85,6 @@ public class NotesTab {
     }
 
     public Component getUiComponent() {
-        return notesPanel;
+        return container;
     }
 }
@@ -0,0 +1,24 @@
+package burp.notes;
+
+import burp.api.montoya.logging.Logging;
+
+import java.util.Locale;
+
+/**
+ * Measures the phases of extension startup and reports them to the extension
+ * output, so the cost Notes+ adds to Burp's load time stays visible.
+ */
+class StartupTimer {
+    private final Logging logging;
+    private final long start = System.nanoTime();
+
+    StartupTimer(Logging logging) {
+        this.logging = logging;
+    }
+
+    /** Logs the time elapsed since this timer was created. */
+    void report(String phase) {
+        logging.logToOutput(String.format(Locale.ROOT, "Notes+ startup: %s took %.1f ms", phase,
+                (System.nanoTime() - start) / 1_000_000.0));
+    }
+}
@@ -0,0 +1,229 @@
+package burp.notes.cli;
+
+import burp.notes.core.BatchJobs;
+import burp.notes.core.BatchReport;
+import burp.notes.core.BatchRunner;
+import burp.notes.core.MetadataQuery;
+import burp.notes.core.NoteLogger;
+import burp.notes.core.NoteIndex;
+import burp.notes.core.NoteManager;
+import burp.notes.core.NoteRenderer;
+import burp.notes.sync.SyncEngine;
+import burp.notes.sync.SyncReport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Headless entry point of the fat JAR for running batch jobs over a notes
+ * directory outside Burp, e.g.
+ * {@code java -jar NotesPlus check --dir /shared/notes --threads 8}.
+ */
+public class NotesCli {
+    private static final String USAGE = String.join("\n",
+            "Usage: java -jar NotesPlus <command> [options]",
+            "",
+            "Commands:",
+            "  reindex              Rebuild the full-text index of the notes directory",
+            "  export  --out DIR    Render every note to HTML in DIR",
+            "  migrate --out DIR    Copy every note to DIR (add --gzip to compress)",
+            "  compress --out DIR   Same as migrate --gzip",
+            "  check                Verify every note file is readable, valid UTF-8 and correctly named",
+            "  sync --shared DIR    Synchronize the notes directory with a shared directory",
+            "  query EXPRESSION     List notes whose front matter matches, e.g.",
+            "                       'severity:high AND host:api.example.com AND NOT status:fixed'",
+            "  search WORDS         List notes containing all WORDS, using the index built by reindex",
+            "",
+            "Options:",
+            "  --dir DIR            Notes directory (default: " + NoteManager.defaultNotesDirectory() + ")",
+            "  --threads N          Worker threads (default: available processors)",
+            "  --replica ID         Replica id used by sync (default: generated once per notes directory)",
+            "  --verbose            Log every note operation");
+
+    private static final Set<String> COMMANDS = Set.of("reindex", "export", "migrate", "compress", "check", "sync",
+            "query", "search");
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        if (args.length == 0 || "--help".equals(args[0]) || "-h".equals(args[0])) {
+            System.out.println(USAGE);
+            return args.length == 0 ? 2 : 0;
+        }
+
+        String command = args[0];
+        if (!COMMANDS.contains(command)) {
+            System.err.println("Unknown command: " + command);
+            System.err.println(USAGE);
+            return 2;
+        }
+        String queryText = null;
+        int firstOption = 1;
+        if ("query".equals(command) || "search".equals(command)) {
+            if (args.length < 2 || args[1].startsWith("--")) {
+                System.err.println(command + " requires " + ("query".equals(command) ? "an expression" : "words"));
+                return 2;
+            }
+            queryText = args[1];
+            firstOption = 2;
+        }
+        Path notesDirectory = NoteManager.defaultNotesDirectory();
+        Path outputDirectory = null;
+        Path sharedDirectory = null;
+        String replicaId = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean gzip = "compress".equals(command);
+        boolean verbose = false;
+
+        try {
+            for (int i = firstOption; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--dir":
+                        notesDirectory = Paths.get(requireValue(args, ++i));
+                        break;
+                    case "--out":
+                        outputDirectory = Paths.get(requireValue(args, ++i));
+                        break;
+                    case "--shared":
+                        sharedDirectory = Paths.get(requireValue(args, ++i));
+                        break;
+                    case "--replica":
+                        replicaId = requireValue(args, ++i);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(requireValue(args, ++i));
+                        break;
+                    case "--gzip":
+                        gzip = true;
+                        break;
+                    case "--verbose":
+                        verbose = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        if ("sync".equals(command)) {
+            return sync(notesDirectory, sharedDirectory, replicaId);
+        }
+        if ("search".equals(command)) {
+            return search(notesDirectory, queryText);
+        }
+        NoteManager noteManager = new NoteManager(notesDirectory, verbose ? NoteLogger.CONSOLE : NoteLogger.SILENT);
+        if ("query".equals(command)) {
+            return query(noteManager, queryText);
+        }
+        try (BatchRunner runner = new BatchRunner(threads, NoteLogger.CONSOLE)) {
+            BatchJobs jobs = new BatchJobs(noteManager, runner);
+            BatchReport report;
+            switch (command) {
+                case "reindex":
+                    report = jobs.reindex();
+                    break;
+                case "export":
+                    report = jobs.export(new NoteRenderer(), requireOutput(outputDirectory, command));
+                    break;
+                case "migrate":
+                case "compress":
+                    report = jobs.migrate(requireOutput(outputDirectory, command), gzip);
+                    break;
+                case "check":
+                    report = jobs.check();
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled command: " + command);
+            }
+            report.getFailures().forEach(failure -> System.err.println("  " + failure));
+            return report.isSuccessful() ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println(command + " failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int sync(Path notesDirectory, Path sharedDirectory, String replicaId) {
+        if (sharedDirectory == null) {
+            System.err.println("sync requires --shared DIR");
+            return 2;
+        }
+        try {
+            SyncReport report = new SyncEngine(notesDirectory, sharedDirectory, replicaId, NoteLogger.CONSOLE).sync();
+            System.out.println(report);
+            report.getConflicts().forEach(name -> System.out.println("  conflict: " + name));
+            report.getFailures().forEach(failure -> System.err.println("  " + failure));
+            return report.getFailures().isEmpty() ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("sync failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int query(NoteManager noteManager, String queryText) {
+        MetadataQuery query;
+        try {
+            query = MetadataQuery.parse(queryText);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid query: " + e.getMessage());
+            return 2;
+        }
+        long start = System.nanoTime();
+        noteManager.rebuildMetadataIndex(noteManager.getAllNoteTitles());
+        long indexed = System.nanoTime();
+        List<String> titles = noteManager.getMetadataIndex().query(query);
+        long queried = System.nanoTime();
+
+        titles.forEach(System.out::println);
+        System.err.printf(Locale.ROOT, "%d of %d notes matched; indexed in %d ms, queried in %d us%n",
+                titles.size(), noteManager.getMetadataIndex().size(), (indexed - start) / 1_000_000,
+                (queried - indexed) / 1_000);
+        return 0;
+    }
+
+    private static int search(Path notesDirectory, String words) {
+        Path indexFile = notesDirectory.resolve(NoteIndex.INDEX_FILE_NAME);
+        if (!Files.exists(indexFile)) {
+            System.err.println("No index at " + indexFile + ", run reindex first");
+            return 1;
+        }
+        try {
+            NoteIndex index = NoteIndex.readFrom(indexFile);
+            Set<String> titles = index.search(words);
+            titles.forEach(System.out::println);
+            System.err.printf(Locale.ROOT, "%d notes matched (%d terms indexed)%n", titles.size(), index.termCount());
+            return 0;
+        } catch (IOException e) {
+            System.err.println("search failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static Path requireOutput(Path outputDirectory, String command) {
+        if (outputDirectory == null) {
+            throw new IllegalArgumentException(command + " requires --out DIR");
+        }
+        return outputDirectory;
+    }
+}
@@ -0,0 +1,245 @@
+package burp.notes.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable Aho-Corasick automaton over UTF-8 bytes, matching ASCII letters
+ * case-insensitively.
+ * <p>
+ * The automaton is compiled to a dense transition table. Bytes are first
+ * mapped to equivalence classes, so bytes that occur in no pattern share one
+ * column and upper-case letters share the column of their lower-case form.
+ * Scanning is one table lookup per input byte, independent of the number of
+ * patterns, and {@link #scan} allocates nothing. Instances are safe to share
+ * between threads.
+ */
+public final class AhoCorasick {
+    /**
+     * Distinct pattern ids found so far plus the automaton state, so a message
+     * can be scanned in several windows. Reusable, but not thread-safe, and
+     * the state only belongs to the automaton that produced it: call
+     * {@link #reset()} before scanning a new message.
+     */
+    public static final class Matches {
+        private final int[] ids;
+        private int count;
+        private int state;
+
+        public Matches(int capacity) {
+            this(new int[capacity]);
+        }
+
+        private Matches(int[] ids) {
+            this.ids = ids;
+        }
+
+        public void reset() {
+            count = 0;
+            state = 0;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public int id(int index) {
+            return ids[index];
+        }
+
+        public boolean isFull() {
+            return count == ids.length;
+        }
+    }
+
+    public static final AhoCorasick EMPTY = build(List.of());
+
+    private final String[] patterns;
+    private final int[] classOf;
+    private final int classCount;
+    private final int[] delta;
+    private final int[] patternAt;
+    private final int[] firstOutput;
+    private final int[] outputLink;
+
+    private AhoCorasick(String[] patterns, int[] classOf, int classCount, int[] delta, int[] patternAt,
+            int[] firstOutput, int[] outputLink) {
+        this.patterns = patterns;
+        this.classOf = classOf;
+        this.classCount = classCount;
+        this.delta = delta;
+        this.patternAt = patternAt;
+        this.firstOutput = firstOutput;
+        this.outputLink = outputLink;
+    }
+
+    /**
+     * Builds an automaton for {@code patterns}. Empty patterns are ignored and
+     * patterns differing only in ASCII case are merged.
+     */
+    public static AhoCorasick build(Collection<String> patterns) {
+        Map<String, byte[]> folded = new LinkedHashMap<>();
+        for (String pattern : patterns) {
+            if (pattern != null && !pattern.isEmpty()) {
+                folded.putIfAbsent(pattern.toLowerCase(Locale.ROOT),
+                        fold(pattern.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        List<byte[]> keys = new ArrayList<>(folded.values());
+        String[] names = folded.keySet().toArray(new String[0]);
+
+        int[] classOf = new int[256];
+        int classCount = 1; // class 0: bytes that appear in no pattern
+        int totalLength = 0;
+        for (byte[] key : keys) {
+            totalLength += key.length;
+            for (byte b : key) {
+                int unsigned = b & 0xff;
+                if (classOf[unsigned] == 0) {
+                    classOf[unsigned] = classCount++;
+                }
+            }
+        }
+        for (int c = 'A'; c <= 'Z'; c++) {
+            classOf[c] = classOf[c + ('a' - 'A')];
+        }
+
+        int maxStates = totalLength + 1;
+        int[] delta = new int[maxStates * classCount];
+        Arrays.fill(delta, -1);
+        int[] patternAt = new int[maxStates];
+        Arrays.fill(patternAt, -1);
+        int states = 1;
+        for (int id = 0; id < keys.size(); id++) {
+            int state = 0;
+            for (byte b : keys.get(id)) {
+                int index = state * classCount + classOf[b & 0xff];
+                if (delta[index] < 0) {
+                    delta[index] = states++;
+                }
+                state = delta[index];
+            }
+            patternAt[state] = id;
+        }
+
+        // Breadth-first: each state's failure target is shallower, so its row is already complete.
+        int[] fail = new int[states];
+        int[] outputLink = new int[states];
+        Arrays.fill(outputLink, -1);
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < classCount; c++) {
+            int child = delta[c];
+            if (child < 0) {
+                delta[c] = 0;
+            } else {
+                fail[child] = 0;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int row = state * classCount;
+            int failRow = fail[state] * classCount;
+            for (int c = 0; c < classCount; c++) {
+                int child = delta[row + c];
+                if (child < 0) {
+                    delta[row + c] = delta[failRow + c];
+                } else {
+                    int f = delta[failRow + c];
+                    fail[child] = f;
+                    outputLink[child] = patternAt[f] >= 0 ? f : outputLink[f];
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        // First state with a pattern along each suffix chain, so scanning checks a single int per byte.
+        int[] firstOutput = new int[states];
+        for (int s = 0; s < states; s++) {
+            firstOutput[s] = patternAt[s] >= 0 ? s : outputLink[s];
+        }
+        return new AhoCorasick(names, classOf, classCount, Arrays.copyOf(delta, states * classCount),
+                Arrays.copyOf(patternAt, states), firstOutput, outputLink);
+    }
+
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    /** Returns pattern {@code id}, lower-cased. */
+    public String pattern(int id) {
+        return patterns[id];
+    }
+
+    /**
+     * Scans {@code data[from, to)} and stores the ids of the distinct patterns
+     * found in {@code out}, in order of first occurrence. Stops once
+     * {@code out} is full.
+     *
+     * @return the number of ids written to {@code out}
+     */
+    public int findDistinct(byte[] data, int from, int to, int[] out) {
+        Matches matches = new Matches(out);
+        scan(data, from, to, matches);
+        return matches.count;
+    }
+
+    /**
+     * Continues scanning with {@code data[from, to)} as the next bytes of the
+     * message, adding newly found pattern ids to {@code matches}. Patterns
+     * spanning two windows are found. Stops once {@code matches} is full.
+     */
+    public void scan(byte[] data, int from, int to, Matches matches) {
+        if (patterns.length == 0 || matches.isFull()) {
+            return;
+        }
+        final int[] delta = this.delta;
+        final int[] classOf = this.classOf;
+        final int[] firstOutput = this.firstOutput;
+        final int classCount = this.classCount;
+        final int[] out = matches.ids;
+        int found = matches.count;
+        int state = matches.state;
+        for (int i = from; i < to; i++) {
+            state = delta[state * classCount + classOf[data[i] & 0xff]];
+            for (int s = firstOutput[state]; s >= 0; s = outputLink[s]) {
+                int id = patternAt[s];
+                if (!contains(out, found, id)) {
+                    out[found++] = id;
+                    if (found == out.length) {
+                        matches.count = found;
+                        return;
+                    }
+                }
+            }
+        }
+        matches.count = found;
+        matches.state = state;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] fold(byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] >= 'A' && bytes[i] <= 'Z') {
+                bytes[i] += 'a' - 'A';
+            }
+        }
+        return bytes;
+    }
+}
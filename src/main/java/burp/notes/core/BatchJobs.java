@@ -0,0 +1,110 @@
+package burp.notes.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The batch jobs offered by the command line: reindex, export, migrate and
+ * integrity check. Each job fans out over all notes via a {@link BatchRunner}.
+ */
+public class BatchJobs {
+    private final NoteManager noteManager;
+    private final BatchRunner runner;
+
+    public BatchJobs(NoteManager noteManager, BatchRunner runner) {
+        this.noteManager = noteManager;
+        this.runner = runner;
+    }
+
+    /**
+     * Rebuilds the full-text index and writes it to {@link NoteIndex#INDEX_FILE_NAME}
+     * in the notes directory.
+     */
+    public BatchReport reindex() throws IOException {
+        NoteIndex index = new NoteIndex();
+        BatchReport report = runner.run("reindex", noteManager.getAllNoteTitles(), title -> {
+            byte[] bytes = Files.readAllBytes(noteManager.getNoteFile(title));
+            index.add(title, new String(bytes, StandardCharsets.UTF_8));
+            return bytes.length;
+        });
+        index.writeTo(noteManager.getNotesDirectory().resolve(NoteIndex.INDEX_FILE_NAME));
+        return report;
+    }
+
+    /**
+     * Renders every note to a standalone {@code .html} file in {@code outputDirectory}.
+     */
+    public BatchReport export(NoteRenderer renderer, Path outputDirectory) throws IOException {
+        Files.createDirectories(outputDirectory);
+        return runner.run("export", noteManager.getAllNoteTitles(), title -> {
+            String html = "<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>" + escapeHtml(title)
+                    + "</title></head><body>\n" + renderer.toHtml(readNote(title)) + "</body></html>\n";
+            byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+            Files.write(outputDirectory.resolve(NoteManager.sanitizeFilename(title) + ".html"), bytes);
+            return bytes.length;
+        });
+    }
+
+    /**
+     * Copies every note into {@code targetDirectory}, gzip-compressing each file
+     * to {@code .md.gz} when {@code compress} is set.
+     */
+    public BatchReport migrate(Path targetDirectory, boolean compress) throws IOException {
+        Files.createDirectories(targetDirectory);
+        return runner.run(compress ? "compress" : "migrate", noteManager.getAllNoteTitles(), title -> {
+            Path source = noteManager.getNoteFile(title);
+            Path target = targetDirectory.resolve(source.getFileName() + (compress ? ".gz" : ""));
+            if (!compress) {
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+                return Files.size(source);
+            }
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target))) {
+                return Files.copy(source, out);
+            }
+        });
+    }
+
+    /**
+     * Verifies every note file is readable, valid UTF-8, free of NUL bytes and
+     * stored under its sanitized file name.
+     */
+    public BatchReport check() {
+        return runner.run("check", noteManager.getAllNoteTitles(), title -> {
+            Path file = noteManager.getNoteFile(title);
+            if (!NoteManager.sanitizeFilename(title).equals(title)) {
+                throw new IOException("file name is not sanitized: " + title + NoteManager.NOTE_EXTENSION);
+            }
+            byte[] bytes = Files.readAllBytes(file);
+            try {
+                StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT)
+                        .decode(ByteBuffer.wrap(bytes));
+            } catch (CharacterCodingException e) {
+                throw new IOException("not valid UTF-8", e);
+            }
+            for (byte b : bytes) {
+                if (b == 0) {
+                    throw new IOException("contains NUL bytes");
+                }
+            }
+            return bytes.length;
+        });
+    }
+
+    private String readNote(String title) throws IOException {
+        return Files.readString(noteManager.getNoteFile(title), StandardCharsets.UTF_8);
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
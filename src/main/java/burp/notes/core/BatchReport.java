@@ -0,0 +1,73 @@
+package burp.notes.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of a {@link BatchRunner} job: counts, failures and throughput.
+ */
+public class BatchReport {
+    private final String jobName;
+    private final int total;
+    private final int succeeded;
+    private final List<String> failures;
+    private final long bytes;
+    private final long elapsedNanos;
+    private final int threads;
+
+    BatchReport(String jobName, int total, int succeeded, List<String> failures, long bytes, long elapsedNanos,
+            int threads) {
+        this.jobName = jobName;
+        this.total = total;
+        this.succeeded = succeeded;
+        this.failures = Collections.unmodifiableList(failures);
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    public double notesPerSecond() {
+        return elapsedNanos == 0 ? 0 : total * 1e9 / elapsedNanos;
+    }
+
+    public double megabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (bytes / (1024.0 * 1024.0)) * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s: %d/%d notes ok, %d failed, %d bytes in %d ms on %d threads (%.1f notes/s, %.2f MB/s)",
+                jobName, succeeded, total, failures.size(), bytes, getElapsedMillis(), threads,
+                notesPerSecond(), megabytesPerSecond());
+    }
+}
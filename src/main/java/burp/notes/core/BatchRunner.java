@@ -0,0 +1,103 @@
+package burp.notes.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a per-note task over a set of notes on a fixed-size thread pool and
+ * reports progress and throughput through a {@link NoteLogger}.
+ */
+public class BatchRunner implements AutoCloseable {
+    /** Work done for a single note; returns the number of bytes processed. */
+    @FunctionalInterface
+    public interface NoteTask {
+        long process(String title) throws IOException;
+    }
+
+    private static final int PROGRESS_STEPS = 10;
+
+    private final int threads;
+    private final ExecutorService executor;
+    private final NoteLogger logging;
+
+    public BatchRunner(int threads, NoteLogger logging) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        this.logging = logging;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "notesplus-batch-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public BatchReport run(String jobName, List<String> titles, NoteTask task) {
+        int total = titles.size();
+        int progressEvery = Math.max(1, total / PROGRESS_STEPS);
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+        logging.logToOutput(jobName + ": processing " + total + " notes on " + threads + " threads");
+        long start = System.nanoTime();
+
+        List<Future<?>> futures = new ArrayList<>(total);
+        for (String title : titles) {
+            futures.add(executor.submit(() -> {
+                try {
+                    bytes.addAndGet(task.process(title));
+                    succeeded.incrementAndGet();
+                } catch (IOException | RuntimeException e) {
+                    failures.add(title + ": " + e.getMessage());
+                    logging.logToError(jobName + ": '" + title + "' failed: " + e.getMessage());
+                }
+                int n = done.incrementAndGet();
+                if (n % progressEvery == 0 && n < total) {
+                    long elapsed = System.nanoTime() - start;
+                    logging.logToOutput(String.format(Locale.ROOT, "%s: %d/%d (%.1f notes/s)",
+                            jobName, n, total, n * 1e9 / Math.max(1, elapsed)));
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                failures.add("interrupted");
+                break;
+            } catch (ExecutionException e) {
+                failures.add(e.getCause().getMessage());
+            }
+        }
+
+        BatchReport report = new BatchReport(jobName, total, succeeded.get(), new ArrayList<>(failures),
+                bytes.get(), System.nanoTime() - start, threads);
+        logging.logToOutput(report.toString());
+        return report;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
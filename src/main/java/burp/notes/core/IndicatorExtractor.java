@@ -0,0 +1,91 @@
+package burp.notes.core;
+
+import burp.notes.model.FrontMatter;
+import burp.notes.model.NoteMetadata;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the traffic indicators a note refers to:
+ * <ul>
+ * <li>hosts and paths of {@code http(s)://} URLs,</li>
+ * <li>bare host names such as {@code api.example.com} whose last label is a
+ * common or internal top-level domain,</li>
+ * <li>{@code host} and {@code indicators} values from the front matter,</li>
+ * <li>text marked as {@code ==value==}, e.g. a parameter name or token.</li>
+ * </ul>
+ * Indicators are lower-cased; values shorter than {@value #MIN_LENGTH}
+ * characters are dropped because they would match most traffic.
+ */
+public final class IndicatorExtractor {
+    public static final String INDICATORS_FIELD = "indicators";
+
+    static final int MIN_LENGTH = 4;
+    static final int MAX_LENGTH = 512;
+
+    private static final Pattern URL = Pattern.compile("https?://([^/\\s<>()\\[\\]\"'`]+)([^\\s<>()\\[\\]\"'`]*)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern HOST = Pattern.compile(
+            "(?<![\\w.@/-])((?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?\\.)+([a-z]{2,24}))(?![\\w-]|\\.\\w)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern MARKED = Pattern.compile("==([^=\\n]{1," + MAX_LENGTH + "})==");
+
+    // Bare dotted names are only hosts if they end in one of these; anything else in prose is
+    // far more likely code (document.cookie, req.body) or a file name. Other hosts are picked
+    // up from URLs, front matter or ==marked== text.
+    private static final Set<String> HOST_TLDS = Set.of("com", "net", "org", "io", "dev", "co", "ai", "edu",
+            "gov", "mil", "int", "info", "biz", "cloud", "online", "site", "tech", "xyz", "us", "uk", "eu", "de",
+            "fr", "nl", "be", "ch", "at", "it", "es", "pt", "se", "no", "dk", "fi", "pl", "cz", "ru", "ua", "tr",
+            "il", "ca", "au", "nz", "jp", "kr", "cn", "tw", "hk", "sg", "in", "br", "mx", "ar", "za",
+            "local", "internal", "corp", "lan", "intranet", "test", "example", "invalid");
+
+    private IndicatorExtractor() {
+    }
+
+    public static Set<String> extract(String markdown) {
+        Set<String> indicators = new LinkedHashSet<>();
+        if (markdown == null || markdown.isEmpty()) {
+            return indicators;
+        }
+
+        NoteMetadata metadata = FrontMatter.parse(markdown).getMetadata();
+        metadata.getHosts().forEach(host -> add(indicators, host));
+        metadata.get(INDICATORS_FIELD).forEach(value -> add(indicators, value));
+
+        Matcher url = URL.matcher(markdown);
+        while (url.find()) {
+            String host = url.group(1);
+            int at = host.lastIndexOf('@');
+            host = host.substring(at + 1).replaceFirst(":\\d+$", "");
+            add(indicators, host);
+            String path = url.group(2).replaceFirst("[?#].*$", "").replaceFirst("[.,;:!]+$", "");
+            if (path.length() > 1) {
+                add(indicators, path);
+            }
+        }
+
+        Matcher host = HOST.matcher(markdown);
+        while (host.find()) {
+            if (HOST_TLDS.contains(host.group(2).toLowerCase(Locale.ROOT))) {
+                add(indicators, host.group(1));
+            }
+        }
+
+        Matcher marked = MARKED.matcher(markdown);
+        while (marked.find()) {
+            add(indicators, marked.group(1));
+        }
+        return indicators;
+    }
+
+    private static void add(Set<String> indicators, String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= MIN_LENGTH && trimmed.length() <= MAX_LENGTH) {
+            indicators.add(trimmed.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package burp.notes.core;
+
+import burp.notes.model.Note;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an {@link AhoCorasick} automaton of the indicators mentioned across all
+ * notes, for matching against live traffic.
+ * <p>
+ * Indicators are extracted per note when it is saved. The automaton is only
+ * rebuilt when the overall indicator set changes. Rebuilds run on a single
+ * background thread and are coalesced. The finished {@link Snapshot} is
+ * published through a volatile field, so readers on the traffic path never
+ * lock and never see a half-built automaton.
+ * <p>
+ * The initial scan of all notes is deferred until {@link #start()} has waited
+ * out Burp's startup or the first traffic asks for a snapshot, whichever comes first.
+ */
+public class IndicatorIndex implements NoteListener, AutoCloseable {
+    /** An immutable automaton together with the notes that mention each pattern. */
+    public static final class Snapshot {
+        public static final Snapshot EMPTY = new Snapshot(AhoCorasick.EMPTY, new String[0]);
+
+        private final AhoCorasick automaton;
+        private final String[] labels;
+
+        private Snapshot(AhoCorasick automaton, String[] labels) {
+            this.automaton = automaton;
+            this.labels = labels;
+        }
+
+        public boolean isEmpty() {
+            return automaton.patternCount() == 0;
+        }
+
+        public int patternCount() {
+            return automaton.patternCount();
+        }
+
+        /** See {@link AhoCorasick#scan(byte[], int, int, AhoCorasick.Matches)}. */
+        public void scan(byte[] data, int from, int to, AhoCorasick.Matches matches) {
+            automaton.scan(data, from, to, matches);
+        }
+
+        /** Returns {@code pattern (note, note)} for pattern {@code id}. */
+        public String label(int id) {
+            return labels[id];
+        }
+    }
+
+    // Keep the initial scan off Burp's startup, when disk and CPU are busiest.
+    private static final long STARTUP_DELAY_SECONDS = 30;
+    // The automaton's dense transition table costs a few KB per indicator, so
+    // only the indicators mentioned by the most notes are matched beyond this.
+    static final int MAX_INDICATORS = 5_000;
+
+    private final NoteManager noteManager;
+    private final NoteLogger logging;
+    private final Map<String, Set<String>> indicatorsByNote = new ConcurrentHashMap<>();
+    // Generation of the last save or delete per note, so a reload never overwrites a newer update.
+    private final Map<String, Long> updatedAt = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // Only touched on the executor thread; avoids repeating the warning on every rebuild.
+    private int droppedIndicators;
+
+    public IndicatorIndex(NoteManager noteManager, NoteLogger logging) {
+        this.noteManager = noteManager;
+        this.logging = logging;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notesplus-indicators");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /** Schedules the initial scan of all notes. */
+    public void start() {
+        executor.schedule(this::loadOnce, STARTUP_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /** Returns the current automaton, starting the initial scan if it has not run yet. */
+    public Snapshot snapshot() {
+        if (!loadStarted.get()) {
+            loadOnce();
+        }
+        return snapshot;
+    }
+
+    private void loadOnce() {
+        if (loadStarted.compareAndSet(false, true)) {
+            reloadAll();
+        }
+    }
+
+    /**
+     * Re-reads every note in the background and rebuilds the automaton. Notes
+     * saved or deleted while the reload runs keep the newer state.
+     */
+    public void reloadAll() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.execute(() -> {
+            long started = generation.get();
+            Map<String, Set<String>> loaded = new HashMap<>();
+            for (String name : noteManager.getAllNoteTitles()) {
+                try {
+                    String content = Files.readString(noteManager.getNoteFile(name), StandardCharsets.UTF_8);
+                    loaded.put(name, IndicatorExtractor.extract(content));
+                } catch (IOException e) {
+                    logging.logToError("Error reading note '" + name + "' for indicators: " + e.getMessage());
+                }
+            }
+            // compute() is atomic per key, and listeners record the generation before writing,
+            // so an update that lands mid-reload is either seen here or applied afterwards.
+            for (String name : indicatorsByNote.keySet()) {
+                if (!loaded.containsKey(name)) {
+                    indicatorsByNote.computeIfPresent(name, (key, current) -> isNewer(key, started) ? current : null);
+                }
+            }
+            loaded.forEach((name, indicators) -> indicatorsByNote.compute(name,
+                    (key, current) -> isNewer(key, started) ? current : indicators));
+            rebuild();
+        });
+    }
+
+    private boolean isNewer(String name, long generationSeen) {
+        return updatedAt.getOrDefault(name, 0L) > generationSeen;
+    }
+
+    @Override
+    public void noteSaved(String name, Note note) {
+        Set<String> indicators = IndicatorExtractor.extract(note.getMarkdownContent());
+        updatedAt.put(name, generation.incrementAndGet());
+        Set<String> previous = indicatorsByNote.put(name, indicators);
+        if (!indicators.equals(previous)) {
+            scheduleRebuild();
+        }
+    }
+
+    @Override
+    public void noteDeleted(String name) {
+        updatedAt.put(name, generation.incrementAndGet());
+        Set<String> previous = indicatorsByNote.remove(name);
+        if (previous != null && !previous.isEmpty()) {
+            scheduleRebuild();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true) && !executor.isShutdown()) {
+            executor.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    private void rebuild() {
+        Map<String, Set<String>> notesByIndicator = new TreeMap<>();
+        indicatorsByNote.forEach((name, indicators) -> {
+            for (String indicator : indicators) {
+                notesByIndicator.computeIfAbsent(indicator, i -> new TreeSet<>()).add(name);
+            }
+        });
+        List<String> patterns = new ArrayList<>(notesByIndicator.keySet());
+        if (patterns.size() > MAX_INDICATORS) {
+            // Stable sort keeps ties in indicator order, so the kept set is deterministic.
+            patterns.sort(Comparator.comparingInt((String pattern) -> notesByIndicator.get(pattern).size()).reversed());
+            int dropped = patterns.size() - MAX_INDICATORS;
+            patterns = patterns.subList(0, MAX_INDICATORS);
+            if (dropped != droppedIndicators) {
+                logging.logToError("Too many indicators in notes, matching the " + MAX_INDICATORS
+                        + " mentioned most and ignoring " + dropped + " others");
+            }
+            droppedIndicators = dropped;
+        } else {
+            droppedIndicators = 0;
+        }
+        AhoCorasick automaton = AhoCorasick.build(patterns);
+        String[] labels = new String[automaton.patternCount()];
+        for (int id = 0; id < labels.length; id++) {
+            String pattern = automaton.pattern(id);
+            labels[id] = pattern + " (" + String.join(", ", notesByIndicator.get(pattern)) + ")";
+        }
+        snapshot = new Snapshot(automaton, labels);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,123 @@
+package burp.notes.core;
+
+import burp.notes.model.NoteMetadata;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bitmap index over note front matter. Every note gets a dense integer id and
+ * every {@code field:value} pair maps to the {@link CompressedBitmap} of the
+ * notes carrying it, so {@link MetadataQuery} expressions are answered with a
+ * handful of bitmap operations instead of reading notes. Values are matched
+ * case-insensitively. All methods are synchronized; queries only hold the
+ * lock while combining bitmaps.
+ */
+public class MetadataIndex {
+    private final Map<String, Integer> idsByTitle = new HashMap<>();
+    private final List<String> titlesById = new ArrayList<>();
+    private final List<NoteMetadata> metadataById = new ArrayList<>();
+    private final Map<String, Map<String, CompressedBitmap>> bitmaps = new HashMap<>();
+    private final CompressedBitmap allNotes = new CompressedBitmap();
+
+    public synchronized void update(String title, NoteMetadata metadata) {
+        Integer existing = idsByTitle.get(title);
+        int id;
+        if (existing != null) {
+            id = existing;
+            unindex(id);
+        } else {
+            id = titlesById.size();
+            idsByTitle.put(title, id);
+            titlesById.add(title);
+            metadataById.add(null);
+        }
+        metadataById.set(id, metadata);
+        allNotes.add(id);
+        metadata.asMap().forEach((field, values) -> {
+            Map<String, CompressedBitmap> byValue = bitmaps.computeIfAbsent(field, f -> new HashMap<>());
+            for (String value : values) {
+                byValue.computeIfAbsent(normalizeValue(value), v -> new CompressedBitmap()).add(id);
+            }
+        });
+    }
+
+    public synchronized void remove(String title) {
+        Integer id = idsByTitle.get(title);
+        if (id != null && allNotes.contains(id)) {
+            unindex(id);
+            allNotes.remove(id);
+            metadataById.set(id, null);
+        }
+    }
+
+    public synchronized List<String> titles() {
+        return toTitles(allNotes);
+    }
+
+    public synchronized int size() {
+        return allNotes.cardinality();
+    }
+
+    /**
+     * Returns the titles of the notes matching {@code query}, in indexing order.
+     *
+     * @throws IllegalArgumentException if the query cannot be parsed
+     */
+    public List<String> query(String query) {
+        return query(MetadataQuery.parse(query));
+    }
+
+    public synchronized List<String> query(MetadataQuery query) {
+        return toTitles(query.evaluate(this));
+    }
+
+    synchronized CompressedBitmap all() {
+        return allNotes;
+    }
+
+    synchronized CompressedBitmap lookup(String field, String value) {
+        Map<String, CompressedBitmap> byValue = bitmaps.get(NoteMetadata.normalizeField(field));
+        CompressedBitmap bitmap = byValue == null ? null : byValue.get(normalizeValue(value));
+        return bitmap == null ? new CompressedBitmap() : bitmap;
+    }
+
+    private void unindex(int id) {
+        NoteMetadata previous = metadataById.get(id);
+        if (previous == null) {
+            return;
+        }
+        previous.asMap().forEach((field, values) -> {
+            Map<String, CompressedBitmap> byValue = bitmaps.get(field);
+            if (byValue == null) {
+                return;
+            }
+            for (String value : values) {
+                String key = normalizeValue(value);
+                CompressedBitmap bitmap = byValue.get(key);
+                if (bitmap != null) {
+                    bitmap.remove(id);
+                    if (bitmap.isEmpty()) {
+                        byValue.remove(key);
+                    }
+                }
+            }
+        });
+    }
+
+    private List<String> toTitles(CompressedBitmap ids) {
+        int[] values = ids.toArray();
+        List<String> titles = new ArrayList<>(values.length);
+        for (int id : values) {
+            titles.add(titlesById.get(id));
+        }
+        return titles;
+    }
+
+    static String normalizeValue(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
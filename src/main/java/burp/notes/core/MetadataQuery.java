@@ -0,0 +1,221 @@
+package burp.notes.core;
+
+import burp.notes.model.NoteMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Boolean query over note metadata, e.g.
+ * {@code severity:high AND host:api.example.com AND NOT status:fixed}.
+ * <p>
+ * Terms are {@code field:value} pairs; a bare word matches a tag. Terms can be
+ * combined with {@code AND}, {@code OR}, {@code NOT} and parentheses, and
+ * adjacent terms are implicitly ANDed. Values containing spaces or colons can
+ * be double-quoted.
+ */
+public abstract class MetadataQuery {
+    abstract CompressedBitmap evaluate(MetadataIndex index);
+
+    public static MetadataQuery parse(String query) {
+        Parser parser = new Parser(tokenize(query));
+        if (parser.atEnd()) {
+            throw new IllegalArgumentException("Empty query");
+        }
+        MetadataQuery result = parser.parseOr();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.peek() + "'");
+        }
+        return result;
+    }
+
+    private static final class Term extends MetadataQuery {
+        private final String field;
+        private final String value;
+
+        Term(String field, String value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        CompressedBitmap evaluate(MetadataIndex index) {
+            return index.lookup(field, value);
+        }
+    }
+
+    private static final class And extends MetadataQuery {
+        private final List<MetadataQuery> operands;
+
+        And(List<MetadataQuery> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        CompressedBitmap evaluate(MetadataIndex index) {
+            // Positive operands first, so NOT terms only subtract from an already narrowed set.
+            CompressedBitmap result = null;
+            List<MetadataQuery> negated = new ArrayList<>();
+            for (MetadataQuery operand : operands) {
+                if (operand instanceof Not) {
+                    negated.add(((Not) operand).operand);
+                    continue;
+                }
+                CompressedBitmap bitmap = operand.evaluate(index);
+                result = result == null ? bitmap : result.and(bitmap);
+                if (result.isEmpty()) {
+                    return result;
+                }
+            }
+            if (result == null) {
+                result = index.all();
+            }
+            for (MetadataQuery operand : negated) {
+                result = result.andNot(operand.evaluate(index));
+            }
+            return result;
+        }
+    }
+
+    private static final class Or extends MetadataQuery {
+        private final List<MetadataQuery> operands;
+
+        Or(List<MetadataQuery> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        CompressedBitmap evaluate(MetadataIndex index) {
+            CompressedBitmap result = new CompressedBitmap();
+            for (MetadataQuery operand : operands) {
+                result = result.or(operand.evaluate(index));
+            }
+            return result;
+        }
+    }
+
+    private static final class Not extends MetadataQuery {
+        private final MetadataQuery operand;
+
+        Not(MetadataQuery operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        CompressedBitmap evaluate(MetadataIndex index) {
+            return index.all().andNot(operand.evaluate(index));
+        }
+    }
+
+    private static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && (Character.isWhitespace(c) || c == '(' || c == ')')) {
+                if (current.length() > 0) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+                if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+        private final List<String> tokens;
+        private int position;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        boolean atEnd() {
+            return position >= tokens.size();
+        }
+
+        String peek() {
+            return tokens.get(position);
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (!atEnd() && peek().toUpperCase(Locale.ROOT).equals(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        MetadataQuery parseOr() {
+            List<MetadataQuery> operands = new ArrayList<>();
+            operands.add(parseAnd());
+            while (acceptKeyword("OR")) {
+                operands.add(parseAnd());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands);
+        }
+
+        MetadataQuery parseAnd() {
+            List<MetadataQuery> operands = new ArrayList<>();
+            operands.add(parseNot());
+            while (!atEnd() && !peek().equals(")") && !peek().equalsIgnoreCase("OR")) {
+                acceptKeyword("AND");
+                operands.add(parseNot());
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(operands);
+        }
+
+        MetadataQuery parseNot() {
+            if (acceptKeyword("NOT")) {
+                return new Not(parseNot());
+            }
+            return parsePrimary();
+        }
+
+        MetadataQuery parsePrimary() {
+            if (atEnd()) {
+                throw new IllegalArgumentException("Unexpected end of query");
+            }
+            String token = tokens.get(position++);
+            if (token.equals("(")) {
+                MetadataQuery inner = parseOr();
+                if (atEnd() || !peek().equals(")")) {
+                    throw new IllegalArgumentException("Missing ')'");
+                }
+                position++;
+                return inner;
+            }
+            if (token.equals(")") || isKeyword(token)) {
+                throw new IllegalArgumentException("Unexpected '" + token + "'");
+            }
+            int colon = token.indexOf(':');
+            if (colon < 0) {
+                return new Term(NoteMetadata.TAGS, token);
+            }
+            if (colon == 0 || colon == token.length() - 1) {
+                throw new IllegalArgumentException("Expected field:value but got '" + token + "'");
+            }
+            return new Term(token.substring(0, colon), token.substring(colon + 1));
+        }
+
+        private static boolean isKeyword(String token) {
+            String upper = token.toUpperCase(Locale.ROOT);
+            return upper.equals("AND") || upper.equals("OR") || upper.equals("NOT");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package burp.notes.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Size and modification time of a note file, used to notice that a note was
+ * changed on disk (e.g. by a sync) after it was loaded into the editor.
+ */
+public final class NoteFileStamp {
+    private final long size;
+    private final long modified;
+
+    public NoteFileStamp(long size, long modified) {
+        this.size = size;
+        this.modified = modified;
+    }
+
+    /** Returns the stamp of {@code file}, or {@code null} if it does not exist or cannot be read. */
+    public static NoteFileStamp of(Path file) {
+        try {
+            return new NoteFileStamp(Files.size(file), Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof NoteFileStamp)) {
+            return false;
+        }
+        NoteFileStamp other = (NoteFileStamp) o;
+        return size == other.size && modified == other.modified;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(size) * 31 + Long.hashCode(modified);
+    }
+
+    @Override
+    public String toString() {
+        return size + " bytes @ " + modified;
+    }
+}
@@ -0,0 +1,122 @@
+package burp.notes.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Inverted index from lower-cased word to the titles of the notes containing
+ * it. Safe to populate from several threads at once. Built by the
+ * {@code reindex} batch job and read back by the {@code search} command.
+ */
+public class NoteIndex {
+    public static final String INDEX_FILE_NAME = ".notesplus.idx";
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final Map<String, NavigableSet<String>> postings = new ConcurrentHashMap<>();
+
+    public void add(String title, String content) {
+        for (String term : tokenize(content)) {
+            postings.computeIfAbsent(term, t -> new ConcurrentSkipListSet<>()).add(title);
+        }
+    }
+
+    /**
+     * Returns the titles of the notes containing every word of {@code text},
+     * sorted; words are split and lower-cased the same way as note content.
+     */
+    public Set<String> search(String text) {
+        Set<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            return Collections.emptySet();
+        }
+        NavigableSet<String> result = null;
+        for (String term : terms) {
+            NavigableSet<String> titles = postings.get(term);
+            if (titles == null) {
+                return Collections.emptySet();
+            }
+            if (result == null) {
+                result = new TreeSet<>(titles);
+            } else {
+                result.retainAll(titles);
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Writes the index as one line per term, {@code term<TAB>title<TAB>title...},
+     * sorted by term so repeated runs over the same notes produce identical files.
+     */
+    public void writeTo(Path indexFile) throws IOException {
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, NavigableSet<String>> entry : new TreeMap<>(postings).entrySet()) {
+                writer.write(entry.getKey());
+                for (String title : entry.getValue()) {
+                    writer.write('\t');
+                    writer.write(title);
+                }
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Reads an index written by {@link #writeTo(Path)}. */
+    public static NoteIndex readFrom(Path indexFile) throws IOException {
+        NoteIndex index = new NoteIndex();
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length < 2) {
+                    throw new IOException("Malformed index line: " + line);
+                }
+                NavigableSet<String> titles = new ConcurrentSkipListSet<>();
+                for (int i = 1; i < fields.length; i++) {
+                    titles.add(fields[i]);
+                }
+                index.postings.put(fields[0], titles);
+            }
+        }
+        return index;
+    }
+
+    static Set<String> tokenize(String content) {
+        Set<String> terms = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= content.length(); i++) {
+            boolean wordChar = i < content.length() && Character.isLetterOrDigit(content.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TERM_LENGTH) {
+                    terms.add(content.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,14 @@
+package burp.notes.core;
+
+import burp.notes.model.Note;
+
+/**
+ * Notified by {@link NoteManager} after a note has been written or deleted.
+ * Called on the thread that performed the operation.
+ */
+public interface NoteListener {
+    /** @param name the note's file name without extension */
+    void noteSaved(String name, Note note);
+
+    void noteDeleted(String name);
+}
@@ -0,0 +1,33 @@
+package burp.notes.core;
+
+/**
+ * Minimal logging sink used by the core classes so they can run both inside
+ * Burp (backed by Montoya {@code Logging}) and headless from the CLI.
+ */
+public interface NoteLogger {
+    void logToOutput(String message);
+
+    void logToError(String message);
+
+    NoteLogger SILENT = new NoteLogger() {
+        @Override
+        public void logToOutput(String message) {
+        }
+
+        @Override
+        public void logToError(String message) {
+        }
+    };
+
+    NoteLogger CONSOLE = new NoteLogger() {
+        @Override
+        public void logToOutput(String message) {
+            System.out.println(message);
+        }
+
+        @Override
+        public void logToError(String message) {
+            System.err.println(message);
+        }
+    };
+}
@@ -1,27 +1,41 @@
 package burp.notes.core;
 
-import burp.api.montoya.logging.Logging;
+import burp.notes.model.FrontMatter;
 import burp.notes.model.Note;
+import burp.notes.model.NoteMetadata;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class NoteManager {
+    public static final String NOTE_EXTENSION = ".md";
+
     private final Path notesDirectory;
-    private final Logging logging;
+    private final NoteLogger logging;
+    private volatile MetadataIndex metadataIndex = new MetadataIndex();
+    private final Object indexLock = new Object();
+    private final Object rebuildLock = new Object();
+    // Updates made while a rebuild reads the notes (null metadata for removals),
+    // replayed onto the new index before it is swapped in. Guarded by indexLock.
+    private Map<String, NoteMetadata> updatesDuringRebuild;
+    private final List<NoteListener> listeners = new CopyOnWriteArrayList<>();
+
+    public NoteManager(NoteLogger logging) {
+        this(defaultNotesDirectory(), logging);
+    }
 
-    public NoteManager(Logging logging) {
+    public NoteManager(Path notesDirectory, NoteLogger logging) {
         this.logging = logging;
-        // Consider making the notes directory configurable or use a Burp-specific
-        // persistent storage API if available
-        String userHome = System.getProperty("user.home");
-        this.notesDirectory = Paths.get(userHome, ".BurpSuite", "NotesPlusExtension");
+        this.notesDirectory = notesDirectory;
 
         try {
             if (!Files.exists(notesDirectory)) {
@@ -34,32 +48,90 @@ public class NoteManager {
         }
     }
 
+    public static Path defaultNotesDirectory() {
+        String userHome = System.getProperty("user.home");
+        return Paths.get(userHome, ".BurpSuite", "NotesPlusExtension");
+    }
+
+    public Path getNotesDirectory() {
+        return notesDirectory;
+    }
+
+    public MetadataIndex getMetadataIndex() {
+        return metadataIndex;
+    }
+
+    public void addNoteListener(NoteListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeNoteListener(NoteListener listener) {
+        listeners.remove(listener);
+    }
+
+    public Path getNoteFile(String title) {
+        return notesDirectory.resolve(sanitizeFilename(title) + NOTE_EXTENSION);
+    }
+
+    public NoteFileStamp getNoteFileStamp(String title) {
+        return NoteFileStamp.of(getNoteFile(title));
+    }
+
+    /**
+     * Copies the note currently on disk to {@code <name>.conflict-<time>.md} so
+     * it is not lost when the editor's version is saved over it.
+     *
+     * @return the name of the copy, or {@code null} if it could not be made
+     */
+    public String saveConflictCopy(String title) {
+        String copyName = sanitizeFilename(title) + ".conflict-" + System.currentTimeMillis();
+        try {
+            Path copyFile = getNoteFile(copyName);
+            Files.copy(getNoteFile(title), copyFile);
+            Note copy = new Note(copyName, Files.readString(copyFile, StandardCharsets.UTF_8));
+            updateMetadataIndex(copyName, copy.getMetadata());
+            for (NoteListener listener : listeners) {
+                listener.noteSaved(copyName, copy);
+            }
+            logging.logToOutput("Kept on-disk version of '" + title + "' as " + copyName);
+            return copyName;
+        } catch (IOException e) {
+            logging.logToError("Error keeping on-disk version of '" + title + "': " + e.getMessage());
+            return null;
+        }
+    }
+
     public void saveNote(Note note) {
         if (note.getTitle() == null || note.getTitle().trim().isEmpty()) {
             logging.logToOutput("Note title cannot be empty.");
             return;
         }
-        // Sanitize title to create a valid filename
-        String fileName = sanitizeFilename(note.getTitle()) + ".md";
-        Path noteFile = notesDirectory.resolve(fileName);
+        Path noteFile = getNoteFile(note.getTitle());
 
         try (BufferedWriter writer = Files.newBufferedWriter(noteFile, StandardCharsets.UTF_8)) {
             writer.write(note.getMarkdownContent());
+            updateMetadataIndex(sanitizeFilename(note.getTitle()), note.getMetadata());
             logging.logToOutput("Note saved: " + noteFile.toString());
         } catch (IOException e) {
             logging.logToError("Error saving note '" + note.getTitle() + "': " + e.getMessage());
+            return;
+        }
+        String name = sanitizeFilename(note.getTitle());
+        for (NoteListener listener : listeners) {
+            listener.noteSaved(name, note);
         }
     }
 
     public Note loadNote(String title) {
-        String fileName = sanitizeFilename(title) + ".md";
-        Path noteFile = notesDirectory.resolve(fileName);
+        Path noteFile = getNoteFile(title);
 
         if (Files.exists(noteFile)) {
             try {
                 String content = Files.readString(noteFile, StandardCharsets.UTF_8);
+                Note note = new Note(title, content);
+                updateMetadataIndex(sanitizeFilename(title), note.getMetadata());
                 logging.logToOutput("Note loaded: " + title);
-                return new Note(title, content);
+                return note;
             } catch (IOException e) {
                 logging.logToError("Error loading note '" + title + "': " + e.getMessage());
             }
@@ -76,8 +148,8 @@ public class NoteManager {
                     .filter(file -> !Files.isDirectory(file))
                     .map(Path::getFileName)
                     .map(Path::toString)
-                    .filter(name -> name.endsWith(".md"))
-                    .map(name -> name.substring(0, name.length() - 3)) // Remove .md extension
+                    .filter(name -> name.endsWith(NOTE_EXTENSION))
+                    .map(name -> name.substring(0, name.length() - NOTE_EXTENSION.length()))
                     // Desanitize filename if necessary, for now assume direct mapping
                     .collect(Collectors.toList());
         } catch (IOException e) {
@@ -87,12 +159,15 @@ public class NoteManager {
     }
 
     public boolean deleteNote(String title) {
-        String fileName = sanitizeFilename(title) + ".md";
-        Path noteFile = notesDirectory.resolve(fileName);
+        Path noteFile = getNoteFile(title);
         try {
             boolean deleted = Files.deleteIfExists(noteFile);
+            updateMetadataIndex(sanitizeFilename(title), null);
             if (deleted) {
                 logging.logToOutput("Note deleted: " + title);
+                for (NoteListener listener : listeners) {
+                    listener.noteDeleted(sanitizeFilename(title));
+                }
             } else {
                 logging.logToOutput("Note not found for deletion or already deleted: " + title);
             }
@@ -103,7 +178,57 @@ public class NoteManager {
         }
     }
 
-    private String sanitizeFilename(String inputName) {
+    /**
+     * Rebuilds the metadata index from the front matter of the given notes,
+     * reading only the front matter lines of each file. The new index replaces
+     * the current one once complete, so queries never see a partial index.
+     * Notes saved, loaded or deleted while the rebuild runs keep their newer
+     * state.
+     */
+    public void rebuildMetadataIndex(List<String> titles) {
+        synchronized (rebuildLock) {
+            synchronized (indexLock) {
+                updatesDuringRebuild = new LinkedHashMap<>();
+            }
+            MetadataIndex rebuilt = new MetadataIndex();
+            try {
+                for (String title : titles) {
+                    try (BufferedReader reader = Files.newBufferedReader(getNoteFile(title), StandardCharsets.UTF_8)) {
+                        rebuilt.update(sanitizeFilename(title), FrontMatter.read(reader).getMetadata());
+                    } catch (IOException e) {
+                        logging.logToError("Error indexing note '" + title + "': " + e.getMessage());
+                    }
+                }
+                synchronized (indexLock) {
+                    updatesDuringRebuild.forEach((name, metadata) -> apply(rebuilt, name, metadata));
+                    metadataIndex = rebuilt;
+                }
+            } finally {
+                synchronized (indexLock) {
+                    updatesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    private void updateMetadataIndex(String name, NoteMetadata metadata) {
+        synchronized (indexLock) {
+            apply(metadataIndex, name, metadata);
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.put(name, metadata);
+            }
+        }
+    }
+
+    private static void apply(MetadataIndex index, String name, NoteMetadata metadata) {
+        if (metadata == null) {
+            index.remove(name);
+        } else {
+            index.update(name, metadata);
+        }
+    }
+
+    public static String sanitizeFilename(String inputName) {
         // Replace common problematic characters, this might need to be more robust
         return inputName.replaceAll("[^a-zA-Z0-9\\.\\-]", "_");
     }
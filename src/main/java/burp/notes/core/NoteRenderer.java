@@ -0,0 +1,83 @@
+package burp.notes.core;
+
+import burp.notes.model.FrontMatter;
+import com.vladsch.flexmark.ast.Image;
+import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.html.HtmlWriter;
+import com.vladsch.flexmark.html.renderer.NodeRenderer;
+import com.vladsch.flexmark.html.renderer.NodeRendererContext;
+import com.vladsch.flexmark.html.renderer.NodeRendererFactory;
+import com.vladsch.flexmark.html.renderer.NodeRenderingHandler;
+import com.vladsch.flexmark.parser.Parser;
+import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.data.DataHolder;
+import com.vladsch.flexmark.util.data.MutableDataSet;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Markdown parsing and HTML rendering shared by the Swing preview and the CLI
+ * export job. Raw HTML is suppressed and images are not rendered. The flexmark
+ * parser and renderer are immutable once built, so one instance can be used
+ * from several threads.
+ */
+public class NoteRenderer {
+    private final Parser parser;
+    private final HtmlRenderer renderer;
+
+    public NoteRenderer() {
+        MutableDataSet options = new MutableDataSet();
+        options.set(HtmlRenderer.SUPPRESS_HTML, true);
+
+        parser = Parser.builder(options).build();
+        renderer = HtmlRenderer.builder(options)
+                .nodeRendererFactory(new NodeRendererFactory() {
+                    @Override
+                    public NodeRenderer apply(DataHolder options) {
+                        return new NodeRenderer() {
+                            @Override
+                            public Set<NodeRenderingHandler<?>> getNodeRenderingHandlers() {
+                                Set<NodeRenderingHandler<?>> set = new HashSet<>();
+                                set.add(new NodeRenderingHandler<>(Image.class,
+                                        new NodeRenderingHandler.CustomNodeRenderer<Image>() {
+                                            @Override
+                                            public void render(Image node, NodeRendererContext context,
+                                                    HtmlWriter html) {
+                                                // Render nothing for images
+                                            }
+                                        }));
+                                return set;
+                            }
+                        };
+                    }
+                })
+                .build();
+    }
+
+    public Node parse(String markdown) {
+        return parser.parse(markdown);
+    }
+
+    public String render(Node document) {
+        return renderer.render(document);
+    }
+
+    /**
+     * Parses and renders a representative document so flexmark's classes are
+     * loaded and its hot paths compiled before the first real note is shown.
+     */
+    public void warmUp() {
+        String sample = "---\nseverity: high\n---\n# Heading\n\nSome **bold**, *italic* and `code` with a "
+                + "[link](https://example.com).\n\n## List\n\n- one\n- two\n  1. nested\n\n> quote\n\n"
+                + "```\nfenced code\n```\n\n![image](x.png) <b>html</b>\n";
+        for (int i = 0; i < 20; i++) {
+            toHtml(sample);
+        }
+    }
+
+    /** Renders a whole note to HTML, leaving out its YAML front matter. */
+    public String toHtml(String markdown) {
+        return render(parse(markdown.substring(FrontMatter.parse(markdown).getBodyOffset())));
+    }
+}
@@ -0,0 +1,176 @@
+package burp.notes.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parser for the YAML front matter at the top of a note:
+ *
+ * <pre>
+ * ---
+ * severity: high
+ * host: [api.example.com, www.example.com]
+ * tags:
+ *   - idor
+ *   - auth
+ * ---
+ * </pre>
+ *
+ * Only the subset of YAML used for note metadata is supported: scalar
+ * values, flow lists and block lists, with optional quotes and comments.
+ */
+public final class FrontMatter {
+    private static final String DELIMITER = "---";
+    private static final String BOM = "\uFEFF";
+
+    private static final FrontMatter NONE = new FrontMatter(NoteMetadata.EMPTY, 0);
+
+    private final NoteMetadata metadata;
+    private final int bodyOffset;
+
+    private FrontMatter(NoteMetadata metadata, int bodyOffset) {
+        this.metadata = metadata;
+        this.bodyOffset = bodyOffset;
+    }
+
+    public NoteMetadata getMetadata() {
+        return metadata;
+    }
+
+    /** Index of the first character after the front matter, or 0 if there is none. */
+    public int getBodyOffset() {
+        return bodyOffset;
+    }
+
+    public static FrontMatter parse(String content) {
+        if (content == null || !(content.startsWith(DELIMITER) || content.startsWith(BOM + DELIMITER))) {
+            return NONE;
+        }
+        try {
+            return read(new BufferedReader(new StringReader(content)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringReader does not throw
+        }
+    }
+
+    /**
+     * Reads only the front matter lines from {@code reader}, so indexing does not
+     * need to load the rest of the note.
+     * <p>
+     * A block between {@code ---} lines only counts as front matter if it has
+     * at least one {@code key:} line, so a note that opens with a horizontal
+     * rule is not mistaken for metadata.
+     */
+    public static FrontMatter read(BufferedReader reader) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        int offset = readLine(reader, buffer);
+        if (offset < 0) {
+            return NONE;
+        }
+        String line = buffer.toString();
+        if (line.startsWith(BOM)) {
+            line = line.substring(1);
+        }
+        if (!line.stripTrailing().equals(DELIMITER)) {
+            return NONE;
+        }
+
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        List<String> currentList = null;
+        int length;
+        while ((length = readLine(reader, buffer)) >= 0) {
+            offset += length;
+            String trimmed = buffer.toString().strip();
+            if (trimmed.equals(DELIMITER) || trimmed.equals("...")) {
+                return fields.isEmpty() ? NONE : new FrontMatter(new NoteMetadata(fields), offset);
+            }
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (trimmed.startsWith("- ") || trimmed.equals("-")) {
+                if (currentList != null) {
+                    addValue(currentList, trimmed.substring(1));
+                }
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            if (colon <= 0) {
+                currentList = null;
+                continue;
+            }
+            String key = trimmed.substring(0, colon).strip();
+            String value = stripComment(trimmed.substring(colon + 1)).strip();
+            List<String> values = fields.computeIfAbsent(key, k -> new ArrayList<>());
+            currentList = values;
+            if (value.startsWith("[") && value.endsWith("]")) {
+                for (String item : value.substring(1, value.length() - 1).split(",")) {
+                    addValue(values, item);
+                }
+            } else {
+                addValue(values, value);
+            }
+        }
+        // No closing delimiter: treat the whole note as body.
+        return NONE;
+    }
+
+    /**
+     * Reads one line into {@code line} without its terminator and returns the
+     * number of characters consumed including the terminator ({@code \n},
+     * {@code \r\n} or {@code \r}), or -1 at the end of the input.
+     */
+    private static int readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int consumed = 0;
+        int c;
+        while ((c = reader.read()) >= 0) {
+            consumed++;
+            if (c == '\n') {
+                return consumed;
+            }
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() == '\n') {
+                    consumed++;
+                } else {
+                    reader.reset();
+                }
+                return consumed;
+            }
+            line.append((char) c);
+        }
+        return consumed == 0 ? -1 : consumed;
+    }
+
+    private static void addValue(List<String> values, String raw) {
+        String value = unquote(stripComment(raw).strip());
+        if (!value.isEmpty()) {
+            values.add(value);
+        }
+    }
+
+    private static String stripComment(String value) {
+        int hash = value.indexOf(" #");
+        String stripped = value.strip();
+        if (hash < 0 || stripped.startsWith("\"") || stripped.startsWith("'")) {
+            return value;
+        }
+        return value.substring(0, hash);
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2) {
+            char first = value.charAt(0);
+            char last = value.charAt(value.length() - 1);
+            if ((first == '"' || first == '\'') && first == last) {
+                return value.substring(1, value.length() - 1);
+            }
+        }
+        return value;
+    }
+}
@@ -3,10 +3,11 @@ package burp.notes.model;
 public class Note {
     private String title;
     private String markdownContent;
+    private NoteMetadata metadata;
 
     public Note(String title, String markdownContent) {
         this.title = title;
-        this.markdownContent = markdownContent;
+        setMarkdownContent(markdownContent);
     }
 
     public String getTitle() {
@@ -23,6 +24,12 @@ public class Note {
 
     public void setMarkdownContent(String markdownContent) {
         this.markdownContent = markdownContent;
+        this.metadata = FrontMatter.parse(markdownContent).getMetadata();
+    }
+
+    /** Metadata from the note's YAML front matter, empty if it has none. */
+    public NoteMetadata getMetadata() {
+        return metadata;
     }
 
     @Override
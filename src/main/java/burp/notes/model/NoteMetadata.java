@@ -0,0 +1,93 @@
+package burp.notes.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Metadata declared in a note's front matter. Field names are lower-cased;
+ * every field holds a list of values, so {@code host: a} and
+ * {@code host: [a, b]} are handled the same way.
+ */
+public final class NoteMetadata {
+    public static final String TAGS = "tags";
+    public static final String HOST = "host";
+    public static final String SEVERITY = "severity";
+    public static final String STATUS = "status";
+    public static final String ENGAGEMENT = "engagement";
+
+    public static final NoteMetadata EMPTY = new NoteMetadata(Collections.emptyMap());
+
+    private final Map<String, List<String>> fields;
+
+    public NoteMetadata(Map<String, List<String>> fields) {
+        // Aliases such as "Tag" and "tags" normalize to the same field, so their values are merged.
+        Map<String, List<String>> merged = new LinkedHashMap<>();
+        fields.forEach((name, values) -> merged.computeIfAbsent(normalizeField(name), f -> new ArrayList<>()).addAll(values));
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        merged.forEach((name, values) -> copy.put(name, List.copyOf(values)));
+        this.fields = Collections.unmodifiableMap(copy);
+    }
+
+    public static String normalizeField(String name) {
+        String field = name.trim().toLowerCase(Locale.ROOT);
+        switch (field) {
+            case "tag":
+                return TAGS;
+            case "hosts":
+                return HOST;
+            default:
+                return field;
+        }
+    }
+
+    public Set<String> fieldNames() {
+        return fields.keySet();
+    }
+
+    public List<String> get(String field) {
+        return fields.getOrDefault(normalizeField(field), Collections.emptyList());
+    }
+
+    public String getFirst(String field) {
+        List<String> values = get(field);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public List<String> getTags() {
+        return get(TAGS);
+    }
+
+    public List<String> getHosts() {
+        return get(HOST);
+    }
+
+    public Severity getSeverity() {
+        return Severity.parse(getFirst(SEVERITY));
+    }
+
+    public String getStatus() {
+        return getFirst(STATUS);
+    }
+
+    public String getEngagement() {
+        return getFirst(ENGAGEMENT);
+    }
+
+    public boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    public Map<String, List<String>> asMap() {
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return fields.toString();
+    }
+}
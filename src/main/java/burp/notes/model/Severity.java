@@ -0,0 +1,30 @@
+package burp.notes.model;
+
+import java.util.Locale;
+
+public enum Severity {
+    INFO, LOW, MEDIUM, HIGH, CRITICAL;
+
+    /** Parses a severity name case-insensitively, returning {@code null} if it is not recognised. */
+    public static Severity parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "info":
+            case "informational":
+                return INFO;
+            case "low":
+                return LOW;
+            case "medium":
+            case "moderate":
+                return MEDIUM;
+            case "high":
+                return HIGH;
+            case "critical":
+                return CRITICAL;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package burp.notes.proxy;
+
+import burp.api.montoya.core.Annotations;
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.core.HighlightColor;
+import burp.api.montoya.proxy.http.InterceptedRequest;
+import burp.api.montoya.proxy.http.InterceptedResponse;
+import burp.api.montoya.proxy.http.ProxyRequestHandler;
+import burp.api.montoya.proxy.http.ProxyRequestReceivedAction;
+import burp.api.montoya.proxy.http.ProxyRequestToBeSentAction;
+import burp.api.montoya.proxy.http.ProxyResponseHandler;
+import burp.api.montoya.proxy.http.ProxyResponseReceivedAction;
+import burp.api.montoya.proxy.http.ProxyResponseToBeSentAction;
+import burp.notes.core.AhoCorasick;
+import burp.notes.core.IndicatorIndex;
+
+/**
+ * Highlights and annotates Proxy history items whose request or response
+ * contains a host, path or marked indicator mentioned in a note.
+ * <p>
+ * This runs on Burp's proxy hot path: it reads the current automaton snapshot
+ * without locking and returns straight away while there is nothing to match.
+ * Otherwise it scans the headers and at most {@value #MAX_BODY_SCAN_BYTES}
+ * bytes of the body in a single pass, copying them through a reused per-thread
+ * window rather than copying the whole message, and only builds annotation
+ * text when something matched. Highlights the user already set are left alone.
+ */
+public class IndicatorProxyHandler implements ProxyRequestHandler, ProxyResponseHandler {
+    static final int MAX_BODY_SCAN_BYTES = 64 * 1024;
+
+    private static final int WINDOW_BYTES = 8 * 1024;
+    private static final int MAX_MATCHES = 16;
+    private static final String NOTES_PREFIX = "Notes+: ";
+    private static final HighlightColor HIGHLIGHT = HighlightColor.CYAN;
+
+    private static final ThreadLocal<byte[]> WINDOW = ThreadLocal.withInitial(() -> new byte[WINDOW_BYTES]);
+    private static final ThreadLocal<AhoCorasick.Matches> MATCHES =
+            ThreadLocal.withInitial(() -> new AhoCorasick.Matches(MAX_MATCHES));
+
+    private final IndicatorIndex indicatorIndex;
+
+    public IndicatorProxyHandler(IndicatorIndex indicatorIndex) {
+        this.indicatorIndex = indicatorIndex;
+    }
+
+    @Override
+    public ProxyRequestReceivedAction handleRequestReceived(InterceptedRequest interceptedRequest) {
+        IndicatorIndex.Snapshot snapshot = indicatorIndex.snapshot();
+        if (snapshot.isEmpty()) {
+            return ProxyRequestReceivedAction.continueWith(interceptedRequest);
+        }
+        Annotations annotations = annotate(snapshot, interceptedRequest.toByteArray(),
+                interceptedRequest.bodyOffset(), interceptedRequest.annotations());
+        return annotations == null
+                ? ProxyRequestReceivedAction.continueWith(interceptedRequest)
+                : ProxyRequestReceivedAction.continueWith(interceptedRequest, annotations);
+    }
+
+    @Override
+    public ProxyRequestToBeSentAction handleRequestToBeSent(InterceptedRequest interceptedRequest) {
+        return ProxyRequestToBeSentAction.continueWith(interceptedRequest);
+    }
+
+    @Override
+    public ProxyResponseReceivedAction handleResponseReceived(InterceptedResponse interceptedResponse) {
+        IndicatorIndex.Snapshot snapshot = indicatorIndex.snapshot();
+        if (snapshot.isEmpty()) {
+            return ProxyResponseReceivedAction.continueWith(interceptedResponse);
+        }
+        Annotations annotations = annotate(snapshot, interceptedResponse.toByteArray(),
+                interceptedResponse.bodyOffset(), interceptedResponse.annotations());
+        return annotations == null
+                ? ProxyResponseReceivedAction.continueWith(interceptedResponse)
+                : ProxyResponseReceivedAction.continueWith(interceptedResponse, annotations);
+    }
+
+    @Override
+    public ProxyResponseToBeSentAction handleResponseToBeSent(InterceptedResponse interceptedResponse) {
+        return ProxyResponseToBeSentAction.continueWith(interceptedResponse);
+    }
+
+    /**
+     * Returns the annotations to apply for the indicators found in {@code message},
+     * or {@code null} if nothing matched or all matches are already noted.
+     */
+    private Annotations annotate(IndicatorIndex.Snapshot snapshot, ByteArray message, int bodyOffset,
+            Annotations current) {
+        int length = (int) Math.min(message.length(), Math.max(0, bodyOffset) + (long) MAX_BODY_SCAN_BYTES);
+        byte[] window = WINDOW.get();
+        AhoCorasick.Matches matches = MATCHES.get();
+        matches.reset();
+        for (int start = 0; start < length && !matches.isFull(); start += window.length) {
+            int end = Math.min(length, start + window.length);
+            for (int i = start; i < end; i++) {
+                window[i - start] = message.getByte(i);
+            }
+            snapshot.scan(window, 0, end - start, matches);
+        }
+        int count = matches.count();
+        if (count == 0) {
+            return null;
+        }
+
+        String existingNotes = current.hasNotes() ? current.notes() : "";
+        StringBuilder notes = new StringBuilder(existingNotes);
+        boolean added = false;
+        for (int i = 0; i < count; i++) {
+            String label = snapshot.label(matches.id(i));
+            if (existingNotes.contains(label)) {
+                continue;
+            }
+            if (notes.length() > 0) {
+                notes.append("; ");
+            }
+            if (!added && !existingNotes.contains(NOTES_PREFIX)) {
+                notes.append(NOTES_PREFIX);
+            }
+            notes.append(label);
+            added = true;
+        }
+        if (!added) {
+            return null;
+        }
+        HighlightColor color = current.hasHighlightColor() && current.highlightColor() != HighlightColor.NONE
+                ? current.highlightColor()
+                : HIGHLIGHT;
+        return Annotations.annotations(notes.toString(), color);
+    }
+}
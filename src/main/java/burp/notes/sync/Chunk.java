@@ -0,0 +1,33 @@
+package burp.notes.sync;
+
+/**
+ * A content-defined slice of a note file, identified by the SHA-256 of its bytes.
+ */
+public final class Chunk {
+    private final String hash;
+    private final int offset;
+    private final int length;
+
+    public Chunk(String hash, int offset, int length) {
+        this.hash = hash;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return hash + " " + length;
+    }
+}
@@ -0,0 +1,85 @@
+package burp.notes.sync;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Content-defined chunking with a gear rolling hash. A boundary is cut where
+ * the low bits of the hash are all zero, so an insertion or deletion in a
+ * large note only changes the chunks around the edit and the rest of the file
+ * keeps the same chunk hashes.
+ */
+public class RollingChunker {
+    public static final int DEFAULT_MIN_SIZE = 2 * 1024;
+    public static final int DEFAULT_AVERAGE_SIZE = 8 * 1024;
+    public static final int DEFAULT_MAX_SIZE = 64 * 1024;
+
+    // Every replica must cut at the same positions, so the table comes from a fixed seed.
+    private static final long[] GEAR = new long[256];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x4e6f7465732bL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final int minSize;
+    private final int maxSize;
+    private final long mask;
+
+    public RollingChunker() {
+        this(DEFAULT_MIN_SIZE, DEFAULT_AVERAGE_SIZE, DEFAULT_MAX_SIZE);
+    }
+
+    public RollingChunker(int minSize, int averageSize, int maxSize) {
+        if (Integer.bitCount(averageSize) != 1 || minSize <= 0 || minSize > averageSize || averageSize > maxSize) {
+            throw new IllegalArgumentException("Expected 0 < min <= average <= max with a power-of-two average");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        // Use the high bits of the hash: they depend on the last 64 bytes, the low bits only on the last few.
+        this.mask = (averageSize - 1L) << (64 - Integer.numberOfTrailingZeros(averageSize));
+    }
+
+    public List<Chunk> split(byte[] data) {
+        List<Chunk> chunks = new ArrayList<>(data.length / Math.max(1, minSize) + 1);
+        MessageDigest digest = sha256();
+        int start = 0;
+        while (start < data.length) {
+            int end = nextBoundary(data, start);
+            digest.update(data, start, end - start);
+            chunks.add(new Chunk(HexFormat.of().formatHex(digest.digest()), start, end - start));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private int nextBoundary(byte[] data, int start) {
+        int remaining = data.length - start;
+        if (remaining <= minSize) {
+            return data.length;
+        }
+        int limit = start + Math.min(remaining, maxSize);
+        long hash = 0;
+        for (int i = start + minSize; i < limit; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xff];
+            if ((hash & mask) == 0) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
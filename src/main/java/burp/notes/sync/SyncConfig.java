@@ -0,0 +1,83 @@
+package burp.notes.sync;
+
+import burp.notes.core.NoteLogger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Sync settings read from {@code sync.properties} in the notes directory:
+ *
+ * <pre>
+ * shared.directory=/mnt/engagement/notes
+ * interval.seconds=300
+ * replica.id=alice
+ * </pre>
+ *
+ * Only {@code shared.directory} is required. Without the file, sync is disabled.
+ */
+public class SyncConfig {
+    public static final String FILE_NAME = "sync.properties";
+    public static final long DEFAULT_INTERVAL_SECONDS = 300;
+
+    private final Path sharedDirectory;
+    private final long intervalSeconds;
+    private final String replicaId;
+
+    public SyncConfig(Path sharedDirectory, long intervalSeconds, String replicaId) {
+        this.sharedDirectory = sharedDirectory;
+        this.intervalSeconds = intervalSeconds;
+        this.replicaId = replicaId;
+    }
+
+    public Path getSharedDirectory() {
+        return sharedDirectory;
+    }
+
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public String getReplicaId() {
+        return replicaId;
+    }
+
+    /**
+     * Loads the configuration for {@code notesDirectory}, or returns {@code null}
+     * if sync is not configured or the file is invalid.
+     */
+    public static SyncConfig load(Path notesDirectory, NoteLogger logging) {
+        Path file = notesDirectory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            logging.logToError("Failed to read " + file + ": " + e.getMessage());
+            return null;
+        }
+
+        String shared = properties.getProperty("shared.directory", "").trim();
+        if (shared.isEmpty()) {
+            logging.logToError(file + " does not set shared.directory, sync disabled.");
+            return null;
+        }
+        long interval = DEFAULT_INTERVAL_SECONDS;
+        String intervalValue = properties.getProperty("interval.seconds");
+        if (intervalValue != null) {
+            try {
+                interval = Math.max(1, Long.parseLong(intervalValue.trim()));
+            } catch (NumberFormatException e) {
+                logging.logToError("Invalid interval.seconds in " + file + ", using " + DEFAULT_INTERVAL_SECONDS);
+            }
+        }
+        return new SyncConfig(Paths.get(shared), interval, properties.getProperty("replica.id"));
+    }
+}
@@ -0,0 +1,350 @@
+package burp.notes.sync;
+
+import burp.notes.core.NoteLogger;
+import burp.notes.core.NoteManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles a local notes directory with a shared directory (network mount,
+ * USB drive or synced folder) used by several testers.
+ * <p>
+ * Note content is split with a {@link RollingChunker} and stored once per
+ * chunk hash under {@code chunks/} in the shared directory; each note has a
+ * {@link SyncManifest} under {@code manifests/} listing its chunks and version
+ * vector. Only chunks missing on the other side are copied, so editing a large
+ * note transfers the changed region rather than the whole file. The last
+ * synced manifest of every note is kept in {@code .notesplus-sync/} in the
+ * local directory to detect local edits and deletions.
+ * <p>
+ * Concurrent edits are resolved in favour of the local copy; the other
+ * version is kept next to it as {@code <note>.conflict-<time>.md} and is
+ * shared on the next run like any other note.
+ */
+public class SyncEngine {
+    public static final String STATE_DIRECTORY = ".notesplus-sync";
+
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    private static final String REPLICA_ID_DIRECTORY = "replica-ids";
+
+    private final Path localDirectory;
+    private final Path stateDirectory;
+    private final Path chunkDirectory;
+    private final Path manifestDirectory;
+    private final String replicaId;
+    private final RollingChunker chunker;
+    private final NoteLogger logging;
+
+    public SyncEngine(Path localDirectory, Path sharedDirectory, String replicaId, NoteLogger logging)
+            throws IOException {
+        this.localDirectory = localDirectory;
+        this.stateDirectory = localDirectory.resolve(STATE_DIRECTORY);
+        this.chunkDirectory = sharedDirectory.resolve("chunks");
+        this.manifestDirectory = sharedDirectory.resolve("manifests");
+        this.chunker = new RollingChunker();
+        this.logging = logging;
+
+        Files.createDirectories(stateDirectory);
+        Files.createDirectories(chunkDirectory);
+        Files.createDirectories(manifestDirectory);
+        this.replicaId = replicaId != null && !replicaId.isBlank()
+                ? NoteManager.sanitizeFilename(replicaId.trim())
+                : loadOrCreateReplicaId();
+    }
+
+    public String getReplicaId() {
+        return replicaId;
+    }
+
+    public synchronized SyncReport sync() throws IOException {
+        long start = System.nanoTime();
+        SyncReport report = new SyncReport();
+
+        TreeSet<String> names = new TreeSet<>();
+        names.addAll(listNames(localDirectory, NoteManager.NOTE_EXTENSION));
+        names.addAll(listNames(stateDirectory, MANIFEST_EXTENSION));
+        names.addAll(listNames(manifestDirectory, MANIFEST_EXTENSION));
+
+        for (String name : names) {
+            if (!NoteManager.sanitizeFilename(name).equals(name)) {
+                report.failure(name + ": not a valid note file name, skipped");
+                continue;
+            }
+            report.noteScanned();
+            try {
+                syncNote(name, report);
+            } catch (IOException | RuntimeException e) {
+                report.failure(name + ": " + e.getMessage());
+                logging.logToError("Sync failed for note '" + name + "': " + e.getMessage());
+            }
+        }
+
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    private void syncNote(String name, SyncReport report) throws IOException {
+        Path noteFile = localDirectory.resolve(name + NoteManager.NOTE_EXTENSION);
+        Path stateFile = stateDirectory.resolve(name + MANIFEST_EXTENSION);
+        Path sharedFile = manifestDirectory.resolve(name + MANIFEST_EXTENSION);
+
+        SyncManifest state = Files.exists(stateFile) ? SyncManifest.read(stateFile) : null;
+        SyncManifest remote = Files.exists(sharedFile) ? SyncManifest.read(sharedFile) : null;
+        LocalNote local = scanLocal(noteFile, state);
+
+        VersionVector localVersion = local.manifest == null ? VersionVector.EMPTY : local.manifest.getVersion();
+        VersionVector remoteVersion = remote == null ? VersionVector.EMPTY : remote.getVersion();
+
+        switch (localVersion.compareTo(remoteVersion)) {
+            case EQUAL:
+                // Same version but different content: both sides edited under one replica id,
+                // e.g. a notes directory copied together with an explicit replica.id.
+                if (local.manifest != null && remote != null && !local.manifest.sameContent(remote)) {
+                    resolveConflict(name, noteFile, stateFile, sharedFile, local, remote, report);
+                } else if (local.manifest != null && local.manifest != state) {
+                    local.manifest.write(stateFile);
+                }
+                break;
+            case AFTER:
+                push(local, sharedFile, report);
+                local.manifest.write(stateFile);
+                report.notePushed();
+                break;
+            case BEFORE:
+                pull(noteFile, stateFile, local, remote, remote.getVersion(), report);
+                break;
+            case CONCURRENT:
+                resolveConflict(name, noteFile, stateFile, sharedFile, local, remote, report);
+                break;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    private void resolveConflict(String name, Path noteFile, Path stateFile, Path sharedFile, LocalNote local,
+            SyncManifest remote, SyncReport report) throws IOException {
+        VersionVector merged = local.manifest.getVersion().merge(remote.getVersion()).increment(replicaId);
+
+        if (local.manifest.sameContent(remote)) {
+            SyncManifest resolved = withVersion(local.manifest, merged);
+            resolved.write(sharedFile);
+            resolved.write(stateFile);
+            return;
+        }
+
+        if (local.manifest.isDeleted()) {
+            // An edit on the other side wins over a local deletion.
+            pull(noteFile, stateFile, local, remote, merged, report);
+            SyncManifest.read(stateFile).write(sharedFile);
+            return;
+        }
+
+        if (!remote.isDeleted()) {
+            Path conflictFile = localDirectory.resolve(
+                    name + ".conflict-" + System.currentTimeMillis() + NoteManager.NOTE_EXTENSION);
+            SyncFiles.write(conflictFile, assemble(remote, local, report));
+            logging.logToOutput("Sync conflict on note '" + name + "', other version saved as "
+                    + conflictFile.getFileName());
+        }
+        report.conflict(name);
+
+        LocalNote resolved = new LocalNote(withVersion(local.manifest, merged), local.file, local.bytes);
+        push(resolved, sharedFile, report);
+        resolved.manifest.write(stateFile);
+        report.notePushed();
+    }
+
+    /**
+     * Describes the current local file. Unchanged files (same size and
+     * modification time as the last sync) reuse the recorded chunk list;
+     * changed, new and deleted files get a new version from this replica.
+     */
+    private LocalNote scanLocal(Path noteFile, SyncManifest state) throws IOException {
+        if (!Files.exists(noteFile)) {
+            if (state == null || state.isDeleted()) {
+                return new LocalNote(state, noteFile, null);
+            }
+            return new LocalNote(new SyncManifest(state.getVersion().increment(replicaId), true, List.of(), -1, -1),
+                    noteFile, null);
+        }
+
+        long size = Files.size(noteFile);
+        long modified = Files.getLastModifiedTime(noteFile).toMillis();
+        if (state != null && !state.isDeleted() && state.getSize() == size && state.getModified() == modified) {
+            return new LocalNote(state, noteFile, null);
+        }
+
+        byte[] bytes = Files.readAllBytes(noteFile);
+        SyncManifest current = new SyncManifest(VersionVector.EMPTY, false, chunker.split(bytes), size, modified);
+        VersionVector version;
+        if (state == null) {
+            version = VersionVector.EMPTY.increment(replicaId);
+        } else if (current.sameContent(state)) {
+            version = state.getVersion();
+        } else {
+            version = state.getVersion().increment(replicaId);
+        }
+        return new LocalNote(withVersion(current, version), noteFile, bytes);
+    }
+
+    private void push(LocalNote local, Path sharedFile, SyncReport report) throws IOException {
+        for (Chunk chunk : local.manifest.getChunks()) {
+            Path chunkFile = chunkFile(chunk.getHash());
+            if (Files.exists(chunkFile)) {
+                continue;
+            }
+            byte[] bytes = local.bytes();
+            Files.createDirectories(chunkFile.getParent());
+            byte[] data = new byte[chunk.getLength()];
+            System.arraycopy(bytes, chunk.getOffset(), data, 0, chunk.getLength());
+            SyncFiles.write(chunkFile, data);
+            report.chunkUploaded(chunk.getLength());
+        }
+        local.manifest.write(sharedFile);
+    }
+
+    private void pull(Path noteFile, Path stateFile, LocalNote local, SyncManifest remote, VersionVector version,
+            SyncReport report) throws IOException {
+        if (remote.isDeleted()) {
+            boolean existed = Files.deleteIfExists(noteFile);
+            new SyncManifest(version, true, List.of(), -1, -1).write(stateFile);
+            if (existed) {
+                report.noteDeleted();
+            }
+            return;
+        }
+        SyncFiles.write(noteFile, assemble(remote, local, report));
+        long size = Files.size(noteFile);
+        long modified = Files.getLastModifiedTime(noteFile).toMillis();
+        new SyncManifest(version, false, remote.getChunks(), size, modified).write(stateFile);
+        report.notePulled();
+    }
+
+    /**
+     * Rebuilds the content described by {@code remote}, copying chunks that the
+     * local file already has and reading only the missing ones from the shared
+     * chunk store.
+     */
+    private byte[] assemble(SyncManifest remote, LocalNote local, SyncReport report) throws IOException {
+        Map<String, Chunk> localChunks = new HashMap<>();
+        if (local.manifest != null && !local.manifest.isDeleted() && Files.exists(local.file)) {
+            for (Chunk chunk : local.manifest.getChunks()) {
+                localChunks.put(chunk.getHash(), chunk);
+            }
+        }
+
+        long total = 0;
+        for (Chunk chunk : remote.getChunks()) {
+            total += chunk.getLength();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Note too large to sync: " + total + " bytes");
+        }
+
+        byte[] result = new byte[(int) total];
+        int position = 0;
+        MessageDigest digest = RollingChunker.sha256();
+        for (Chunk chunk : remote.getChunks()) {
+            Chunk reusable = localChunks.get(chunk.getHash());
+            if (reusable != null && reusable.getLength() == chunk.getLength()) {
+                System.arraycopy(local.bytes(), reusable.getOffset(), result, position, chunk.getLength());
+                report.chunkReused(chunk.getLength());
+            } else {
+                byte[] data;
+                try {
+                    data = Files.readAllBytes(chunkFile(chunk.getHash()));
+                } catch (NoSuchFileException e) {
+                    throw new IOException("Missing chunk " + chunk.getHash() + " in shared directory");
+                }
+                if (data.length != chunk.getLength()
+                        || !HexFormat.of().formatHex(digest.digest(data)).equals(chunk.getHash())) {
+                    throw new IOException("Corrupt chunk " + chunk.getHash() + " in shared directory");
+                }
+                System.arraycopy(data, 0, result, position, data.length);
+                report.chunkDownloaded(data.length);
+            }
+            position += chunk.getLength();
+        }
+        return result;
+    }
+
+    private Path chunkFile(String hash) {
+        return chunkDirectory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static SyncManifest withVersion(SyncManifest manifest, VersionVector version) {
+        return new SyncManifest(version, manifest.isDeleted(), manifest.getChunks(), manifest.getSize(),
+                manifest.getModified());
+    }
+
+    private static List<String> listNames(Path directory, String extension) throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream
+                    .filter(Files::isRegularFile)
+                    .map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(extension))
+                    .map(name -> name.substring(0, name.length() - extension.length()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Returns the generated id of this notes directory. It is kept under the
+     * user's home directory, keyed by the directory's path, so copying a notes
+     * directory to another tester or location does not copy its id.
+     */
+    private String loadOrCreateReplicaId() throws IOException {
+        Path idFile = replicaIdFile(localDirectory);
+        if (Files.exists(idFile)) {
+            String id = Files.readString(idFile, StandardCharsets.UTF_8).trim();
+            if (!id.isEmpty()) {
+                return id;
+            }
+        }
+        String id = UUID.randomUUID().toString();
+        Files.createDirectories(idFile.getParent());
+        SyncFiles.write(idFile, id.getBytes(StandardCharsets.UTF_8));
+        logging.logToOutput("Generated sync replica id " + id + " for " + localDirectory);
+        return id;
+    }
+
+    static Path replicaIdFile(Path localDirectory) {
+        String path = localDirectory.toAbsolutePath().normalize().toString();
+        String key = HexFormat.of().formatHex(RollingChunker.sha256().digest(path.getBytes(StandardCharsets.UTF_8)));
+        return Paths.get(System.getProperty("user.home"), STATE_DIRECTORY, REPLICA_ID_DIRECTORY)
+                .resolve(key.substring(0, 32));
+    }
+
+    /** A local note file with its current manifest; the file bytes are read on first use. */
+    private static final class LocalNote {
+        private final SyncManifest manifest;
+        private final Path file;
+        private byte[] bytes;
+
+        LocalNote(SyncManifest manifest, Path file, byte[] bytes) {
+            this.manifest = manifest;
+            this.file = file;
+            this.bytes = bytes;
+        }
+
+        byte[] bytes() throws IOException {
+            if (bytes == null) {
+                bytes = Files.readAllBytes(file);
+            }
+            return bytes;
+        }
+    }
+}
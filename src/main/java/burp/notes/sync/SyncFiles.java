@@ -0,0 +1,39 @@
+package burp.notes.sync;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+final class SyncFiles {
+    private SyncFiles() {
+    }
+
+    /**
+     * Creates a uniquely named temporary file next to {@code target}, so several
+     * replicas writing the same shared file never share a temporary file.
+     */
+    static Path tempFileFor(Path target) throws IOException {
+        return Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+    }
+
+    /** Moves {@code tmp} over {@code target}, atomically where the file system allows it. */
+    static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static void write(Path target, byte[] data) throws IOException {
+        Path tmp = tempFileFor(target);
+        try {
+            Files.write(tmp, data);
+            moveIntoPlace(tmp, target);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package burp.notes.sync;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Description of one version of a note: its version vector, whether it is a
+ * deletion tombstone, and the ordered chunk hashes that make up its content.
+ * The same format is used for the shared copy and for the local record of the
+ * last synced state, which additionally stores the file size and modification
+ * time so unchanged notes do not need to be re-chunked.
+ *
+ * <pre>
+ * version=alice:3,bob:1
+ * deleted=false
+ * size=12345
+ * modified=1700000000000
+ * chunk=&lt;sha-256&gt; &lt;length&gt;
+ * </pre>
+ */
+public final class SyncManifest {
+    private final VersionVector version;
+    private final boolean deleted;
+    private final List<Chunk> chunks;
+    private final long size;
+    private final long modified;
+
+    public SyncManifest(VersionVector version, boolean deleted, List<Chunk> chunks, long size, long modified) {
+        this.version = version;
+        this.deleted = deleted;
+        this.chunks = Collections.unmodifiableList(new ArrayList<>(chunks));
+        this.size = size;
+        this.modified = modified;
+    }
+
+    public VersionVector getVersion() {
+        return version;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public List<Chunk> getChunks() {
+        return chunks;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getModified() {
+        return modified;
+    }
+
+    public boolean sameContent(SyncManifest other) {
+        if (deleted || other.deleted) {
+            return deleted == other.deleted;
+        }
+        if (chunks.size() != other.chunks.size()) {
+            return false;
+        }
+        for (int i = 0; i < chunks.size(); i++) {
+            if (!chunks.get(i).getHash().equals(other.chunks.get(i).getHash())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static SyncManifest read(Path file) throws IOException {
+        VersionVector version = VersionVector.EMPTY;
+        boolean deleted = false;
+        long size = -1;
+        long modified = -1;
+        List<Chunk> chunks = new ArrayList<>();
+        int offset = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            int eq = line.indexOf('=');
+            if (eq < 0) {
+                continue;
+            }
+            String key = line.substring(0, eq);
+            String value = line.substring(eq + 1);
+            try {
+                switch (key) {
+                    case "version":
+                        version = VersionVector.parse(value);
+                        break;
+                    case "deleted":
+                        deleted = Boolean.parseBoolean(value);
+                        break;
+                    case "size":
+                        size = Long.parseLong(value);
+                        break;
+                    case "modified":
+                        modified = Long.parseLong(value);
+                        break;
+                    case "chunk":
+                        int space = value.indexOf(' ');
+                        int length = Integer.parseInt(value.substring(space + 1));
+                        chunks.add(new Chunk(value.substring(0, space), offset, length));
+                        offset += length;
+                        break;
+                    default:
+                        break;
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed manifest " + file + ": " + line, e);
+            }
+        }
+        return new SyncManifest(version, deleted, chunks, size, modified);
+    }
+
+    public void write(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("version=").append(version).append('\n');
+        sb.append("deleted=").append(deleted).append('\n');
+        sb.append("size=").append(size).append('\n');
+        sb.append("modified=").append(modified).append('\n');
+        for (Chunk chunk : chunks) {
+            sb.append("chunk=").append(chunk).append('\n');
+        }
+        SyncFiles.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
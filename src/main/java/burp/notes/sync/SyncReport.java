@@ -0,0 +1,117 @@
+package burp.notes.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Counters collected during one {@link SyncEngine#sync()} run.
+ */
+public class SyncReport {
+    private int notesScanned;
+    private int pushed;
+    private int pulled;
+    private int deleted;
+    private int chunksUploaded;
+    private int chunksDownloaded;
+    private long bytesUploaded;
+    private long bytesDownloaded;
+    private long bytesReused;
+    private long elapsedNanos;
+    private final List<String> conflicts = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+
+    void noteScanned() {
+        notesScanned++;
+    }
+
+    void notePushed() {
+        pushed++;
+    }
+
+    void notePulled() {
+        pulled++;
+    }
+
+    void noteDeleted() {
+        deleted++;
+    }
+
+    void chunkUploaded(int length) {
+        chunksUploaded++;
+        bytesUploaded += length;
+    }
+
+    void chunkDownloaded(int length) {
+        chunksDownloaded++;
+        bytesDownloaded += length;
+    }
+
+    void chunkReused(int length) {
+        bytesReused += length;
+    }
+
+    void conflict(String name) {
+        conflicts.add(name);
+    }
+
+    void failure(String message) {
+        failures.add(message);
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getNotesScanned() {
+        return notesScanned;
+    }
+
+    public int getPushed() {
+        return pushed;
+    }
+
+    public int getPulled() {
+        return pulled;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public long getBytesUploaded() {
+        return bytesUploaded;
+    }
+
+    public long getBytesDownloaded() {
+        return bytesDownloaded;
+    }
+
+    public long getBytesReused() {
+        return bytesReused;
+    }
+
+    public List<String> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    public List<String> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    /** Whether the run changed files in the local notes directory. */
+    public boolean hasLocalChanges() {
+        return pulled > 0 || deleted > 0 || !conflicts.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "sync: %d notes scanned, %d pushed, %d pulled, %d deleted, %d conflicts, %d failed; "
+                        + "uploaded %d chunks (%d bytes), downloaded %d chunks (%d bytes), reused %d bytes in %d ms",
+                notesScanned, pushed, pulled, deleted, conflicts.size(), failures.size(),
+                chunksUploaded, bytesUploaded, chunksDownloaded, bytesDownloaded, bytesReused,
+                elapsedNanos / 1_000_000);
+    }
+}
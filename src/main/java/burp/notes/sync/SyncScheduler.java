@@ -0,0 +1,82 @@
+package burp.notes.sync;
+
+import burp.notes.core.NoteLogger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs a {@link SyncEngine} periodically on a single background thread.
+ * <p>
+ * Reading {@code sync.properties} and setting up the engine touch the shared
+ * directory, which may be a slow network mount, so both happen on the
+ * background thread as part of the first scheduled run.
+ */
+public class SyncScheduler implements AutoCloseable {
+    // Keep the first run off Burp's startup, when disk and CPU are busiest.
+    private static final long STARTUP_DELAY_SECONDS = 30;
+
+    private final Path notesDirectory;
+    private final NoteLogger logging;
+    private final Consumer<SyncReport> listener;
+    private final ScheduledExecutorService executor;
+    private volatile SyncEngine engine;
+
+    public SyncScheduler(Path notesDirectory, NoteLogger logging, Consumer<SyncReport> listener) {
+        this.notesDirectory = notesDirectory;
+        this.logging = logging;
+        this.listener = listener;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notesplus-sync");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start() {
+        executor.schedule(this::setUp, STARTUP_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void setUp() {
+        SyncConfig config = SyncConfig.load(notesDirectory, logging);
+        if (config == null) {
+            executor.shutdown();
+            return;
+        }
+        try {
+            engine = new SyncEngine(notesDirectory, config.getSharedDirectory(), config.getReplicaId(), logging);
+        } catch (IOException | RuntimeException e) {
+            logging.logToError("Failed to start notes sync with " + config.getSharedDirectory() + ": "
+                    + e.getMessage());
+            executor.shutdown();
+            return;
+        }
+        long intervalSeconds = config.getIntervalSeconds();
+        executor.scheduleWithFixedDelay(this::runOnce, 0, intervalSeconds, TimeUnit.SECONDS);
+        logging.logToOutput("Notes sync scheduled every " + intervalSeconds + "s as replica " + engine.getReplicaId());
+    }
+
+    private void runOnce() {
+        try {
+            SyncReport report = engine.sync();
+            if (report.getPushed() > 0 || report.hasLocalChanges() || !report.getFailures().isEmpty()) {
+                logging.logToOutput(report.toString());
+            }
+            if (listener != null) {
+                listener.accept(report);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Never let an exception escape, it would cancel the periodic schedule.
+            logging.logToError("Notes sync failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
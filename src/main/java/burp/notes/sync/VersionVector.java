@@ -0,0 +1,99 @@
+package burp.notes.sync;
+
+import java.util.TreeMap;
+
+/**
+ * Per-note version vector: one update counter per replica (tester) that has
+ * modified the note. Instances are immutable.
+ */
+public final class VersionVector {
+    public enum Order {
+        EQUAL, BEFORE, AFTER, CONCURRENT
+    }
+
+    public static final VersionVector EMPTY = new VersionVector(new TreeMap<>());
+
+    private final TreeMap<String, Long> counters;
+
+    private VersionVector(TreeMap<String, Long> counters) {
+        this.counters = counters;
+    }
+
+    public long get(String replicaId) {
+        return counters.getOrDefault(replicaId, 0L);
+    }
+
+    public VersionVector increment(String replicaId) {
+        TreeMap<String, Long> next = new TreeMap<>(counters);
+        next.merge(replicaId, 1L, Long::sum);
+        return new VersionVector(next);
+    }
+
+    public VersionVector merge(VersionVector other) {
+        TreeMap<String, Long> next = new TreeMap<>(counters);
+        other.counters.forEach((replica, counter) -> next.merge(replica, counter, Math::max));
+        return new VersionVector(next);
+    }
+
+    /**
+     * Compares this vector with {@code other}: {@code BEFORE} means this
+     * version is an ancestor of {@code other}, {@code CONCURRENT} means both
+     * sides have updates the other has not seen.
+     */
+    public Order compareTo(VersionVector other) {
+        boolean less = false;
+        boolean greater = false;
+        TreeMap<String, Long> all = new TreeMap<>(counters);
+        other.counters.forEach(all::putIfAbsent);
+        for (String replica : all.keySet()) {
+            long mine = get(replica);
+            long theirs = other.get(replica);
+            if (mine < theirs) {
+                less = true;
+            } else if (mine > theirs) {
+                greater = true;
+            }
+        }
+        if (less && greater) {
+            return Order.CONCURRENT;
+        }
+        return less ? Order.BEFORE : greater ? Order.AFTER : Order.EQUAL;
+    }
+
+    /** Parses the {@code replica:counter,replica:counter} form written by {@link #toString()}. */
+    public static VersionVector parse(String text) {
+        TreeMap<String, Long> counters = new TreeMap<>();
+        if (text != null && !text.isBlank()) {
+            for (String entry : text.trim().split(",")) {
+                int colon = entry.lastIndexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Malformed version vector entry: " + entry);
+                }
+                counters.put(entry.substring(0, colon), Long.parseLong(entry.substring(colon + 1)));
+            }
+        }
+        return new VersionVector(counters);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof VersionVector && counters.equals(((VersionVector) o).counters);
+    }
+
+    @Override
+    public int hashCode() {
+        return counters.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        counters.forEach((replica, counter) -> {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(replica).append(':').append(counter);
+        });
+        return sb.toString();
+    }
+}
@@ -2,24 +2,18 @@ package burp.notes.ui;
 
 import burp.api.montoya.MontoyaApi;
 import burp.api.montoya.logging.Logging;
+import burp.notes.core.MetadataIndex;
+import burp.notes.core.NoteFileStamp;
 import burp.notes.core.NoteManager;
+import burp.notes.core.NoteRenderer;
+import burp.notes.model.FrontMatter;
 import burp.notes.model.Note;
-import com.vladsch.flexmark.html.HtmlRenderer;
-import com.vladsch.flexmark.html.renderer.NodeRenderer;
-import com.vladsch.flexmark.html.renderer.NodeRendererContext;
-import com.vladsch.flexmark.html.renderer.NodeRendererFactory;
-import com.vladsch.flexmark.html.renderer.NodeRenderingHandler;
-import com.vladsch.flexmark.parser.Parser;
-import com.vladsch.flexmark.util.data.DataHolder;
-import com.vladsch.flexmark.util.data.MutableDataSet;
 import com.vladsch.flexmark.util.ast.NodeVisitor;
 import com.vladsch.flexmark.util.ast.VisitHandler;
 import com.vladsch.flexmark.ast.StrongEmphasis;
 import com.vladsch.flexmark.ast.Emphasis;
 import com.vladsch.flexmark.ast.Heading;
-import com.vladsch.flexmark.ast.Image;
 import com.vladsch.flexmark.util.ast.Visitor;
-import com.vladsch.flexmark.html.HtmlWriter;
 
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
@@ -34,9 +28,13 @@ import java.awt.event.ActionEvent;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 public class NotesPanel extends JPanel {
+    private static final String FILTER_TOOLTIP =
+            "Filter by front matter, e.g. severity:high AND host:api.example.com AND NOT status:fixed";
+
     private final Logging logging;
     private JTextPane markdownEditor;
     private JEditorPane htmlPreviewPane;
@@ -46,53 +44,49 @@ public class NotesPanel extends JPanel {
     private JButton newButton;
     private JButton deleteButton;
     private JTextField titleField;
+    private JTextField filterField;
 
-    private final Parser parser;
-    private final HtmlRenderer renderer;
+    private NoteRenderer renderer;
     private final NoteManager noteManager;
     private boolean isUpdating = false;
+    private boolean hasUnsavedChanges = false;
+    // File name and on-disk stamp of the note in the editor, to detect changes made behind its back.
+    private String loadedNoteName;
+    private NoteFileStamp loadedStamp;
     private Timer renderDelayTimer;
+    private Timer filterDelayTimer;
 
-    public NotesPanel(MontoyaApi montoyaApi) {
+    /**
+     * @param noteManager    note storage shared with the rest of the extension
+     * @param rendererFuture Markdown renderer being built and warmed up in the
+     *                       background; highlighting and preview start once it
+     *                       completes, the editor is usable before that.
+     */
+    public NotesPanel(MontoyaApi montoyaApi, NoteManager noteManager, CompletableFuture<NoteRenderer> rendererFuture) {
         this.logging = montoyaApi.logging();
-        this.noteManager = new NoteManager(this.logging); // Pass the logging object
+        this.noteManager = noteManager;
         setLayout(new BorderLayout());
 
-        MutableDataSet options = new MutableDataSet();
-        options.set(HtmlRenderer.SUPPRESS_HTML, true);
-
-        parser = Parser.builder(options).build();
-        renderer = HtmlRenderer.builder(options)
-                .nodeRendererFactory(new NodeRendererFactory() {
-                    @Override
-                    public NodeRenderer apply(DataHolder options) {
-                        return new NodeRenderer() {
-                            @Override
-                            public Set<NodeRenderingHandler<?>> getNodeRenderingHandlers() {
-                                Set<NodeRenderingHandler<?>> set = new HashSet<>();
-                                set.add(new NodeRenderingHandler<>(Image.class,
-                                        new NodeRenderingHandler.CustomNodeRenderer<Image>() {
-                                            @Override
-                                            public void render(Image node, NodeRendererContext context,
-                                                    HtmlWriter html) {
-                                                // Render nothing for images
-                                            }
-                                        }));
-                                return set;
-                            }
-                        };
-                    }
-                })
-                .build();
-
         initRenderTimer();
         initComponents();
         loadNotesList();
+
+        rendererFuture.whenComplete((readyRenderer, ex) -> SwingUtilities.invokeLater(() -> {
+            if (ex != null) {
+                logging.logToError("Markdown renderer warm-up failed, building it now: " + ex.getMessage());
+                renderer = new NoteRenderer();
+            } else {
+                renderer = readyRenderer;
+            }
+            renderMarkdownAndPreview();
+        }));
     }
 
     private void initRenderTimer() {
         renderDelayTimer = new Timer(300, e -> renderMarkdownAndPreview());
         renderDelayTimer.setRepeats(false);
+        filterDelayTimer = new Timer(150, e -> applyFilter());
+        filterDelayTimer.setRepeats(false);
     }
 
     private void initComponents() {
@@ -146,7 +140,36 @@ public class NotesPanel extends JPanel {
         });
         JScrollPane listScrollPane = new JScrollPane(notesList);
         listScrollPane.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
-        mainSplitPane.setLeftComponent(listScrollPane);
+
+        filterField = new JTextField();
+        filterField.setToolTipText(FILTER_TOOLTIP);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                if (filterDelayTimer != null) {
+                    filterDelayTimer.restart();
+                }
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                if (filterDelayTimer != null) {
+                    filterDelayTimer.restart();
+                }
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                if (filterDelayTimer != null) {
+                    filterDelayTimer.restart();
+                }
+            }
+        });
+
+        JPanel listPanel = new JPanel(new BorderLayout(0, 4));
+        listPanel.add(filterField, BorderLayout.NORTH);
+        listPanel.add(listScrollPane, BorderLayout.CENTER);
+        mainSplitPane.setLeftComponent(listPanel);
 
         JSplitPane editorAndPreviewSplitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT);
         editorAndPreviewSplitPane.setResizeWeight(0.5);
@@ -157,22 +180,31 @@ public class NotesPanel extends JPanel {
         markdownEditor.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void insertUpdate(DocumentEvent e) {
-                if (!isUpdating && renderDelayTimer != null) {
-                    renderDelayTimer.restart();
+                if (!isUpdating) {
+                    hasUnsavedChanges = true;
+                    if (renderDelayTimer != null) {
+                        renderDelayTimer.restart();
+                    }
                 }
             }
 
             @Override
             public void removeUpdate(DocumentEvent e) {
-                if (!isUpdating && renderDelayTimer != null) {
-                    renderDelayTimer.restart();
+                if (!isUpdating) {
+                    hasUnsavedChanges = true;
+                    if (renderDelayTimer != null) {
+                        renderDelayTimer.restart();
+                    }
                 }
             }
 
             @Override
             public void changedUpdate(DocumentEvent e) {
-                if (!isUpdating && renderDelayTimer != null) {
-                    renderDelayTimer.restart();
+                if (!isUpdating) {
+                    hasUnsavedChanges = true;
+                    if (renderDelayTimer != null) {
+                        renderDelayTimer.restart();
+                    }
                 }
             }
         });
@@ -200,7 +232,7 @@ public class NotesPanel extends JPanel {
     }
 
     private void renderMarkdownAndPreview() {
-        if (isUpdating) {
+        if (isUpdating || renderer == null) {
             return;
         }
         isUpdating = true;
@@ -219,7 +251,9 @@ public class NotesPanel extends JPanel {
             StyleConstants.setForeground(defaultAttrs, markdownEditor.getForeground());
             doc.setCharacterAttributes(0, doc.getLength(), defaultAttrs, true);
 
-            com.vladsch.flexmark.util.ast.Node astRoot = parser.parse(markdownText);
+            // Parse only the body once; offsets in the tree are shifted back by the front matter length.
+            int bodyOffset = FrontMatter.parse(markdownText).getBodyOffset();
+            com.vladsch.flexmark.util.ast.Node astRoot = renderer.parse(markdownText.substring(bodyOffset));
 
             NodeVisitor visitor = new NodeVisitor(
                     new VisitHandler<>(StrongEmphasis.class, new Visitor<StrongEmphasis>() {
@@ -230,7 +264,7 @@ public class NotesPanel extends JPanel {
                             StyleConstants.setBold(boldContentAttrs, true);
 
                             com.vladsch.flexmark.util.sequence.BasedSequence contentSequence = node.getText();
-                            int contentStart = contentSequence.getStartOffset();
+                            int contentStart = bodyOffset + contentSequence.getStartOffset();
                             int contentLength = contentSequence.length();
                             if (contentStart >= 0 && (contentStart + contentLength) <= doc.getLength()) {
                                 doc.setCharacterAttributes(contentStart, contentLength, boldContentAttrs, false);
@@ -242,14 +276,14 @@ public class NotesPanel extends JPanel {
                             StyleConstants.setForeground(hiddenMarkerAttrs, Color.LIGHT_GRAY);
 
                             if (node.getOpeningMarker().length() > 0) {
-                                int markerStart = node.getOpeningMarker().getStartOffset();
+                                int markerStart = bodyOffset + node.getOpeningMarker().getStartOffset();
                                 int markerLength = node.getOpeningMarker().length();
                                 if (markerStart >= 0 && (markerStart + markerLength) <= doc.getLength()) {
                                     doc.setCharacterAttributes(markerStart, markerLength, hiddenMarkerAttrs, false);
                                 }
                             }
                             if (node.getClosingMarker().length() > 0) {
-                                int markerStart = node.getClosingMarker().getStartOffset();
+                                int markerStart = bodyOffset + node.getClosingMarker().getStartOffset();
                                 int markerLength = node.getClosingMarker().length();
                                 if (markerStart >= 0 && (markerStart + markerLength) <= doc.getLength()) {
                                     doc.setCharacterAttributes(markerStart, markerLength, hiddenMarkerAttrs, false);
@@ -265,7 +299,7 @@ public class NotesPanel extends JPanel {
                             StyleConstants.setItalic(italicContentAttrs, true);
 
                             com.vladsch.flexmark.util.sequence.BasedSequence contentSequence = node.getText();
-                            int contentStart = contentSequence.getStartOffset();
+                            int contentStart = bodyOffset + contentSequence.getStartOffset();
                             int contentLength = contentSequence.length();
                             if (contentStart >= 0 && (contentStart + contentLength) <= doc.getLength()) {
                                 doc.setCharacterAttributes(contentStart, contentLength, italicContentAttrs, false);
@@ -277,14 +311,14 @@ public class NotesPanel extends JPanel {
                             StyleConstants.setForeground(hiddenMarkerAttrs, Color.LIGHT_GRAY);
 
                             if (node.getOpeningMarker().length() > 0) {
-                                int markerStart = node.getOpeningMarker().getStartOffset();
+                                int markerStart = bodyOffset + node.getOpeningMarker().getStartOffset();
                                 int markerLength = node.getOpeningMarker().length();
                                 if (markerStart >= 0 && (markerStart + markerLength) <= doc.getLength()) {
                                     doc.setCharacterAttributes(markerStart, markerLength, hiddenMarkerAttrs, false);
                                 }
                             }
                             if (node.getClosingMarker().length() > 0) {
-                                int markerStart = node.getClosingMarker().getStartOffset();
+                                int markerStart = bodyOffset + node.getClosingMarker().getStartOffset();
                                 int markerLength = node.getClosingMarker().length();
                                 if (markerStart >= 0 && (markerStart + markerLength) <= doc.getLength()) {
                                     doc.setCharacterAttributes(markerStart, markerLength, hiddenMarkerAttrs, false);
@@ -317,7 +351,7 @@ public class NotesPanel extends JPanel {
 
                             com.vladsch.flexmark.util.sequence.BasedSequence contentSequence = node.getText();
                             if (contentSequence != null && contentSequence.length() > 0) {
-                                int contentStart = contentSequence.getStartOffset();
+                                int contentStart = bodyOffset + contentSequence.getStartOffset();
                                 int contentLength = contentSequence.length();
                                 if (contentStart >= 0 && (contentStart + contentLength) <= doc.getLength()) {
                                     doc.setCharacterAttributes(contentStart, contentLength, headingAttrs, false);
@@ -330,7 +364,7 @@ public class NotesPanel extends JPanel {
                             StyleConstants.setForeground(hiddenMarkerAttrs, Color.LIGHT_GRAY);
 
                             if (node.getOpeningMarker().length() > 0) {
-                                int markerStart = node.getOpeningMarker().getStartOffset();
+                                int markerStart = bodyOffset + node.getOpeningMarker().getStartOffset();
                                 int markerLength = node.getOpeningMarker().length();
                                 if (markerStart >= 0 && (markerStart + markerLength) <= doc.getLength()) {
                                     doc.setCharacterAttributes(markerStart, markerLength, hiddenMarkerAttrs, false);
@@ -374,13 +408,27 @@ public class NotesPanel extends JPanel {
         }
 
         final String finalTitle = title;
+        final String noteName = NoteManager.sanitizeFilename(finalTitle);
+        final NoteFileStamp expectedStamp = noteName.equals(loadedNoteName) ? loadedStamp : null;
         String markdownContent = markdownEditor.getText();
         Note noteToSave = new Note(finalTitle, markdownContent);
 
         new SwingWorker<Void, Void>() {
+            private String conflictCopy;
+            private NoteFileStamp savedStamp;
+
             @Override
             protected Void doInBackground() {
+                // The file changed since it was loaded (e.g. a sync pulled a teammate's edit):
+                // keep that version instead of silently overwriting it.
+                if (expectedStamp != null) {
+                    NoteFileStamp current = noteManager.getNoteFileStamp(noteName);
+                    if (current != null && !current.equals(expectedStamp)) {
+                        conflictCopy = noteManager.saveConflictCopy(noteName);
+                    }
+                }
                 noteManager.saveNote(noteToSave);
+                savedStamp = noteManager.getNoteFileStamp(noteName);
                 return null;
             }
 
@@ -389,7 +437,19 @@ public class NotesPanel extends JPanel {
                 try {
                     get();
                     logging.logToOutput("Note saved: " + finalTitle);
-                    if (!notesListModel.contains(finalTitle)) {
+                    loadedNoteName = noteName;
+                    loadedStamp = savedStamp;
+                    hasUnsavedChanges = !markdownEditor.getText().equals(markdownContent);
+                    if (conflictCopy != null) {
+                        refreshNotesList();
+                        JOptionPane.showMessageDialog(NotesPanel.this,
+                                "'" + finalTitle + "' was changed on disk since it was loaded.\n"
+                                        + "That version was kept as '" + conflictCopy + "'.",
+                                "Save Conflict", JOptionPane.WARNING_MESSAGE);
+                    }
+                    if (isFilterActive()) {
+                        applyFilter();
+                    } else if (!notesListModel.contains(finalTitle)) {
                         notesListModel.addElement(finalTitle);
                         notesList.setSelectedValue(finalTitle, true);
                     }
@@ -408,8 +468,12 @@ public class NotesPanel extends JPanel {
             return;
 
         new SwingWorker<Note, Void>() {
+            private NoteFileStamp stamp;
+
             @Override
             protected Note doInBackground() {
+                // Stamp first: if the file changes while loading, the stamp is stale and a later save detects it.
+                stamp = noteManager.getNoteFileStamp(selectedTitle);
                 return noteManager.loadNote(selectedTitle);
             }
 
@@ -418,14 +482,7 @@ public class NotesPanel extends JPanel {
                 try {
                     Note loadedNote = get();
                     if (loadedNote != null) {
-                        if (renderDelayTimer != null) {
-                            renderDelayTimer.stop();
-                        }
-                        isUpdating = true;
-                        markdownEditor.setText(loadedNote.getMarkdownContent());
-                        isUpdating = false;
-                        renderMarkdownAndPreview();
-                        titleField.setText(loadedNote.getTitle());
+                        showLoadedNote(loadedNote, stamp);
                         logging.logToOutput("Note loaded: " + loadedNote.getTitle());
                     } else {
                         logging.logToOutput("Failed to load note or note not found: " + selectedTitle);
@@ -439,6 +496,57 @@ public class NotesPanel extends JPanel {
         }.execute();
     }
 
+    private void showLoadedNote(Note note, NoteFileStamp stamp) {
+        if (renderDelayTimer != null) {
+            renderDelayTimer.stop();
+        }
+        isUpdating = true;
+        markdownEditor.setText(note.getMarkdownContent());
+        isUpdating = false;
+        renderMarkdownAndPreview();
+        titleField.setText(note.getTitle());
+        loadedNoteName = NoteManager.sanitizeFilename(note.getTitle());
+        loadedStamp = stamp;
+        hasUnsavedChanges = false;
+    }
+
+    /**
+     * Reloads the note in the editor if its file changed on disk, unless the
+     * editor has unsaved changes; those are reconciled on the next save.
+     */
+    private void reloadOpenNoteIfChanged() {
+        final String name = loadedNoteName;
+        final NoteFileStamp stamp = loadedStamp;
+        if (name == null || hasUnsavedChanges) {
+            return;
+        }
+        new SwingWorker<Note, Void>() {
+            private NoteFileStamp current;
+
+            @Override
+            protected Note doInBackground() {
+                current = noteManager.getNoteFileStamp(name);
+                if (current == null || current.equals(stamp)) {
+                    return null;
+                }
+                return noteManager.loadNote(name);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    Note note = get();
+                    if (note != null && !hasUnsavedChanges && name.equals(loadedNoteName) && stamp == loadedStamp) {
+                        showLoadedNote(note, current);
+                        logging.logToOutput("Reloaded note changed on disk: " + name);
+                    }
+                } catch (InterruptedException | ExecutionException ex) {
+                    logging.logToError("Error reloading note '" + name + "': " + ex.getMessage());
+                }
+            }
+        }.execute();
+    }
+
     private void deleteNoteAction(ActionEvent e) {
         String selectedTitle = notesList.getSelectedValue();
         if (selectedTitle == null) {
@@ -492,7 +600,9 @@ public class NotesPanel extends JPanel {
         new SwingWorker<List<String>, Void>() {
             @Override
             protected List<String> doInBackground() {
-                return noteManager.getAllNoteTitles();
+                List<String> titles = noteManager.getAllNoteTitles();
+                noteManager.rebuildMetadataIndex(titles);
+                return titles;
             }
 
             @Override
@@ -503,6 +613,9 @@ public class NotesPanel extends JPanel {
                     for (String title : titles) {
                         notesListModel.addElement(title);
                     }
+                    if (isFilterActive()) {
+                        applyFilter();
+                    }
                     if (!notesListModel.isEmpty()) {
                         notesList.setSelectedIndex(0);
                     } else {
@@ -518,6 +631,85 @@ public class NotesPanel extends JPanel {
         }.execute();
     }
 
+    /**
+     * Reloads the titles from disk without touching the current selection, e.g.
+     * after a background sync added or removed notes. The open note is reloaded
+     * if it changed on disk and has no unsaved edits.
+     */
+    public void refreshNotesList() {
+        new SwingWorker<List<String>, Void>() {
+            @Override
+            protected List<String> doInBackground() {
+                List<String> titles = noteManager.getAllNoteTitles();
+                noteManager.rebuildMetadataIndex(titles);
+                return titles;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    List<String> titles = get();
+                    if (isFilterActive()) {
+                        applyFilter();
+                    } else {
+                        showTitles(titles, true);
+                    }
+                    reloadOpenNoteIfChanged();
+                } catch (InterruptedException | ExecutionException ex) {
+                    logging.logToError("Error refreshing note list: " + ex.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private boolean isFilterActive() {
+        return filterField != null && !filterField.getText().isBlank();
+    }
+
+    /**
+     * Shows only the notes matching the front matter query in the filter field,
+     * answered from the in-memory metadata index. An invalid query is flagged on
+     * the field and leaves the list unchanged.
+     */
+    private void applyFilter() {
+        String query = filterField.getText().trim();
+        MetadataIndex index = noteManager.getMetadataIndex();
+        try {
+            List<String> titles = query.isEmpty() ? index.titles() : index.query(query);
+            filterField.setForeground(UIManager.getColor("TextField.foreground"));
+            filterField.setToolTipText(FILTER_TOOLTIP);
+            showTitles(titles, false);
+        } catch (IllegalArgumentException ex) {
+            filterField.setForeground(Color.RED);
+            filterField.setToolTipText("Invalid filter: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Updates the list model in place so an unchanged selection does not reload
+     * the editor. With {@code keepSelected}, the selected note stays listed even
+     * if it is missing from {@code titles}.
+     */
+    private void showTitles(List<String> titles, boolean keepSelected) {
+        Set<String> wanted = new HashSet<>(titles);
+        String selected = notesList.getSelectedValue();
+        for (int i = notesListModel.size() - 1; i >= 0; i--) {
+            String title = notesListModel.get(i);
+            if (!wanted.contains(title) && !(keepSelected && title.equals(selected))) {
+                notesListModel.remove(i);
+            }
+        }
+        Set<String> present = new HashSet<>();
+        for (int i = 0; i < notesListModel.size(); i++) {
+            present.add(notesListModel.get(i));
+        }
+        for (String title : titles) {
+            if (present.add(title)) {
+                notesListModel.addElement(title);
+            }
+        }
+    }
+
     private void clearEditor() {
         titleField.setText("Untitled Note");
         if (renderDelayTimer != null) {
@@ -532,6 +724,9 @@ public class NotesPanel extends JPanel {
         markdownEditor.setText("");
         htmlPreviewPane.setText("");
         isUpdating = false;
+        loadedNoteName = null;
+        loadedStamp = null;
+        hasUnsavedChanges = false;
         renderMarkdownAndPreview();
     }
 
@@ -540,6 +735,10 @@ public class NotesPanel extends JPanel {
      * Stops and disposes of the renderDelayTimer to prevent memory leaks.
      */
     public void cleanup() {
+        if (filterDelayTimer != null) {
+            filterDelayTimer.stop();
+            filterDelayTimer = null;
+        }
         if (renderDelayTimer != null) {
             renderDelayTimer.stop();
             renderDelayTimer = null;
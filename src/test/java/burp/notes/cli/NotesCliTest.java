@@ -0,0 +1,87 @@
+package burp.notes.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotesCliTest {
+    @TempDir
+    Path notes;
+    @TempDir
+    Path out;
+
+    @Test
+    void helpAndMissingCommand() {
+        assertEquals(0, NotesCli.run(new String[] {"--help"}));
+        assertEquals(2, NotesCli.run(new String[0]));
+    }
+
+    @Test
+    void unknownCommandFailsBeforeTouchingNotesDirectory() {
+        Path missing = notes.resolve("not-created");
+
+        assertEquals(2, NotesCli.run(new String[] {"reindx", "--dir", missing.toString()}));
+        assertFalse(Files.exists(missing));
+    }
+
+    @Test
+    void invalidOptionsExitWithTwo() {
+        String dir = notes.toString();
+        assertEquals(2, NotesCli.run(new String[] {"check", "--dir", dir, "--bogus"}));
+        assertEquals(2, NotesCli.run(new String[] {"check", "--dir"}));
+        assertEquals(2, NotesCli.run(new String[] {"check", "--dir", dir, "--threads", "many"}));
+        assertEquals(2, NotesCli.run(new String[] {"check", "--dir", dir, "--threads", "0"}));
+        assertEquals(2, NotesCli.run(new String[] {"export", "--dir", dir}));
+        assertEquals(2, NotesCli.run(new String[] {"sync", "--dir", dir}));
+        assertEquals(2, NotesCli.run(new String[] {"query", "--dir", dir}));
+        assertEquals(2, NotesCli.run(new String[] {"query", "severity:", "--dir", dir}));
+        assertEquals(2, NotesCli.run(new String[] {"search"}));
+    }
+
+    @Test
+    void checkExitCodeReflectsFailures() throws IOException {
+        write("ok", "# Fine\n");
+        assertEquals(0, NotesCli.run(new String[] {"check", "--dir", notes.toString()}));
+
+        Files.write(notes.resolve("broken.md"), new byte[] {0});
+        assertEquals(1, NotesCli.run(new String[] {"check", "--dir", notes.toString(), "--threads", "1"}));
+    }
+
+    @Test
+    void searchUsesIndexWrittenByReindex() throws IOException {
+        write("login", "SQL injection in login\n");
+        String dir = notes.toString();
+
+        assertEquals(1, NotesCli.run(new String[] {"search", "login", "--dir", dir}));
+        assertEquals(0, NotesCli.run(new String[] {"reindex", "--dir", dir}));
+        assertTrue(Files.exists(notes.resolve(".notesplus.idx")));
+        assertEquals(0, NotesCli.run(new String[] {"search", "login", "--dir", dir}));
+    }
+
+    @Test
+    void compressWritesToOutputDirectory() throws IOException {
+        write("login", "SQL injection in login\n");
+
+        assertEquals(0, NotesCli.run(new String[] {"compress", "--dir", notes.toString(), "--out", out.toString()}));
+        assertTrue(Files.exists(out.resolve("login.md.gz")));
+    }
+
+    @Test
+    void queryMatchesFrontMatter() throws IOException {
+        write("login", "---\nseverity: high\n---\nbody\n");
+
+        assertEquals(0, NotesCli.run(new String[] {"query", "severity:high", "--dir", notes.toString()}));
+    }
+
+    private void write(String title, String content) throws IOException {
+        Files.writeString(notes.resolve(title + ".md"), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,137 @@
+package burp.notes.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AhoCorasickTest {
+    @Test
+    void findsOverlappingPatterns() {
+        AhoCorasick automaton = AhoCorasick.build(List.of("he", "she", "his", "hers"));
+
+        assertEquals(List.of("she", "he", "hers"), find(automaton, "ushers"));
+        assertEquals(List.of("his"), find(automaton, "this"));
+        assertEquals(List.of(), find(automaton, "hxs"));
+    }
+
+    @Test
+    void patternThatIsSuffixOfAnotherIsReportedOnce() {
+        AhoCorasick automaton = AhoCorasick.build(List.of("token", "oken", "ken"));
+
+        assertEquals(List.of("token", "oken", "ken"), find(automaton, "tokentokentoken"));
+    }
+
+    @Test
+    void foldsAsciiCase() {
+        AhoCorasick automaton = AhoCorasick.build(List.of("X-Debug-Token", "x-debug-token", "API.Example.COM"));
+
+        assertEquals(2, automaton.patternCount());
+        assertEquals("x-debug-token", automaton.pattern(0));
+        assertEquals(List.of("api.example.com", "x-debug-token"),
+                find(automaton, "Host: api.EXAMPLE.com\r\nx-DEBUG-token: 1"));
+    }
+
+    @Test
+    void matchesNonAsciiBytesExactly() {
+        AhoCorasick automaton = AhoCorasick.build(List.of("caf\u00e9", "\u00e4pfel", "\u00fc"));
+
+        assertEquals(List.of("caf\u00e9"), find(automaton, "un caf\u00e9 noir"));
+        assertEquals(List.of("\u00fc"), find(automaton, "\u00fcber"));
+        // Only ASCII is case-folded, so the UTF-8 bytes of \u00c4 do not match those of \u00e4.
+        assertEquals(List.of(), find(automaton, "\u00c4PFEL"));
+        assertEquals(List.of("\u00e4pfel"), find(automaton, "\u00e4PFEL"));
+        // Bytes that belong to no pattern must not disturb a partial match.
+        assertEquals(List.of("caf\u00e9"), find(automaton, "cafcaf\u00e9\u00ff"));
+        assertEquals(List.of(), find(automaton, "caf\u00ffe"));
+    }
+
+    @Test
+    void respectsRangeAndCapacity() {
+        AhoCorasick automaton = AhoCorasick.build(List.of("aaa", "bbb", "ccc"));
+        byte[] data = "aaa bbb ccc".getBytes(StandardCharsets.UTF_8);
+
+        int[] out = new int[2];
+        assertEquals(2, automaton.findDistinct(data, 0, data.length, out));
+        assertEquals(List.of(0, 1), List.of(out[0], out[1]));
+        assertEquals(1, automaton.findDistinct(data, 4, 8, new int[4]));
+        assertEquals(0, AhoCorasick.EMPTY.findDistinct(data, 0, data.length, new int[4]));
+    }
+
+    @Test
+    void scanCarriesMatchesAcrossWindows() {
+        AhoCorasick automaton = AhoCorasick.build(List.of("session", "admin"));
+        byte[] data = "GET /admin HTTP/1.1\r\nCookie: session=1".getBytes(StandardCharsets.UTF_8);
+        AhoCorasick.Matches matches = new AhoCorasick.Matches(4);
+
+        for (int window = 1; window <= data.length; window++) {
+            matches.reset();
+            for (int start = 0; start < data.length; start += window) {
+                byte[] copy = Arrays.copyOfRange(data, start, Math.min(data.length, start + window));
+                automaton.scan(copy, 0, copy.length, matches);
+            }
+            assertEquals(2, matches.count(), "window " + window);
+            assertEquals(1, matches.id(0));
+            assertEquals(0, matches.id(1));
+        }
+    }
+
+    @Test
+    void agreesWithNaiveSearch() {
+        Random random = new Random(11);
+        for (int round = 0; round < 500; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(10); i++) {
+                patterns.add(randomString(random, 1 + random.nextInt(4)));
+            }
+            String text = randomString(random, random.nextInt(300));
+            AhoCorasick automaton = AhoCorasick.build(patterns);
+
+            assertEquals(naive(patterns, text), new LinkedHashSet<>(find(automaton, text)), text + " " + patterns);
+        }
+    }
+
+    private static List<String> find(AhoCorasick automaton, String text) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        int[] out = new int[16];
+        int count = automaton.findDistinct(data, 0, data.length, out);
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            found.add(automaton.pattern(out[i]));
+        }
+        return found;
+    }
+
+    /** Patterns in order of the end position of their first occurrence, as the automaton reports them. */
+    private static Set<String> naive(List<String> patterns, String text) {
+        Set<String> found = new LinkedHashSet<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int end = 1; end <= lower.length(); end++) {
+            for (int length = end; length >= 1; length--) {
+                String candidate = lower.substring(end - length, end);
+                for (String pattern : patterns) {
+                    if (pattern.toLowerCase(Locale.ROOT).equals(candidate)) {
+                        found.add(candidate);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append("abAB".charAt(random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package burp.notes.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchJobsTest {
+    @TempDir
+    Path notesDirectory;
+    @TempDir
+    Path outputDirectory;
+
+    private BatchRunner runner;
+    private BatchJobs jobs;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        write("login", "---\nseverity: high\n---\n# Login\nSQL injection in the login form\n");
+        write("upload", "# Upload\nStored XSS via file name, caf\u00e9 parameter\n");
+        runner = new BatchRunner(2, NoteLogger.SILENT);
+        jobs = new BatchJobs(new NoteManager(notesDirectory, NoteLogger.SILENT), runner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.close();
+    }
+
+    @Test
+    void reindexWritesSearchableIndexAndCountsBytes() throws IOException {
+        BatchReport report = jobs.reindex();
+
+        assertTrue(report.isSuccessful());
+        assertEquals(Files.size(file("login")) + Files.size(file("upload")), report.getBytes());
+        NoteIndex index = NoteIndex.readFrom(notesDirectory.resolve(NoteIndex.INDEX_FILE_NAME));
+        assertEquals(Set.of("login"), index.search("SQL injection"));
+        assertEquals(Set.of("upload"), index.search("caf\u00e9"));
+        assertEquals(Set.of(), index.search("xss sql"));
+    }
+
+    @Test
+    void exportRendersEveryNoteWithoutFrontMatter() throws IOException {
+        BatchReport report = jobs.export(new NoteRenderer(), outputDirectory);
+
+        assertTrue(report.isSuccessful());
+        String html = Files.readString(outputDirectory.resolve("login.html"), StandardCharsets.UTF_8);
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.contains("<title>login</title>"));
+        assertTrue(html.contains("<h1>Login</h1>"), html);
+        assertFalse(html.contains("severity"), html);
+        assertTrue(Files.exists(outputDirectory.resolve("upload.html")));
+    }
+
+    @Test
+    void migrateCopiesNotes() throws IOException {
+        BatchReport report = jobs.migrate(outputDirectory, false);
+
+        assertTrue(report.isSuccessful());
+        assertArrayEquals(Files.readAllBytes(file("login")), Files.readAllBytes(outputDirectory.resolve("login.md")));
+        assertEquals(Files.size(file("login")) + Files.size(file("upload")), report.getBytes());
+    }
+
+    @Test
+    void compressWritesGzipFiles() throws IOException {
+        BatchReport report = jobs.migrate(outputDirectory, true);
+
+        assertTrue(report.isSuccessful());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(outputDirectory.resolve("upload.md.gz")))) {
+            assertArrayEquals(Files.readAllBytes(file("upload")), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void checkReportsInvalidNotes() throws IOException {
+        assertTrue(jobs.check().isSuccessful());
+
+        Files.write(file("binary"), new byte[] {'a', 0, 'b'});
+        Files.write(file("latin1"), new byte[] {'c', 'a', 'f', (byte) 0xe9});
+        BatchReport report = jobs.check();
+
+        assertFalse(report.isSuccessful());
+        assertEquals(2, report.getSucceeded());
+        assertEquals(Set.of("binary: contains NUL bytes", "latin1: not valid UTF-8"), Set.copyOf(report.getFailures()));
+    }
+
+    private Path file(String title) {
+        return notesDirectory.resolve(title + NoteManager.NOTE_EXTENSION);
+    }
+
+    private void write(String title, String content) throws IOException {
+        Files.writeString(file(title), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,73 @@
+package burp.notes.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchRunnerTest {
+    @Test
+    void runsTaskForEveryNoteAndSumsBytes() {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            titles.add("note" + i);
+        }
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+
+        try (BatchRunner runner = new BatchRunner(4, NoteLogger.SILENT)) {
+            BatchReport report = runner.run("test", titles, title -> {
+                processed.add(title);
+                return 10;
+            });
+
+            assertEquals(Set.copyOf(titles), processed);
+            assertEquals(100, report.getTotal());
+            assertEquals(100, report.getSucceeded());
+            assertEquals(1000, report.getBytes());
+            assertTrue(report.isSuccessful());
+        }
+    }
+
+    @Test
+    void collectsFailuresWithoutStoppingOtherNotes() {
+        try (BatchRunner runner = new BatchRunner(2, NoteLogger.SILENT)) {
+            BatchReport report = runner.run("test", List.of("good", "io", "runtime"), title -> {
+                if (title.equals("io")) {
+                    throw new IOException("disk error");
+                }
+                if (title.equals("runtime")) {
+                    throw new IllegalStateException("bug");
+                }
+                return 5;
+            });
+
+            assertFalse(report.isSuccessful());
+            assertEquals(1, report.getSucceeded());
+            assertEquals(5, report.getBytes());
+            assertEquals(Set.of("io: disk error", "runtime: bug"), Set.copyOf(report.getFailures()));
+        }
+    }
+
+    @Test
+    void emptyInputSucceeds() {
+        try (BatchRunner runner = new BatchRunner(1, NoteLogger.SILENT)) {
+            BatchReport report = runner.run("test", List.of(), title -> 1);
+
+            assertEquals(0, report.getTotal());
+            assertTrue(report.isSuccessful());
+        }
+    }
+
+    @Test
+    void rejectsInvalidThreadCount() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(0, NoteLogger.SILENT));
+    }
+}
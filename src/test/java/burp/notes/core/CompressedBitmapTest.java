@@ -0,0 +1,152 @@
+package burp.notes.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedBitmapTest {
+    // Cardinalities around the array/bitmap container switch, within one 65536-value container.
+    private static final int[] SIZES = {0, 1, 100, CompressedBitmap.ARRAY_MAX - 1, CompressedBitmap.ARRAY_MAX,
+            CompressedBitmap.ARRAY_MAX + 1, 20_000};
+
+    @Test
+    void addAndContainsAcrossContainerSwitch() {
+        for (int size : SIZES) {
+            BitSet expected = randomSet(size, 65_536, size);
+            CompressedBitmap bitmap = bitmapOf(expected);
+
+            assertMatches(expected, bitmap);
+            for (int value = 0; value < 65_536; value += 7) {
+                assertEquals(expected.get(value), bitmap.contains(value), "value " + value);
+            }
+        }
+    }
+
+    @Test
+    void binaryOperationsMatchBitSet() {
+        for (int left : SIZES) {
+            for (int right : SIZES) {
+                BitSet a = randomSet(left, 65_536, 31L * left + right);
+                BitSet b = randomSet(right, 65_536, 17L * right + left + 1);
+                CompressedBitmap x = bitmapOf(a);
+                CompressedBitmap y = bitmapOf(b);
+
+                assertMatches(and(a, b), x.and(y));
+                assertMatches(or(a, b), x.or(y));
+                assertMatches(andNot(a, b), x.andNot(y));
+                // Operands are left untouched.
+                assertMatches(a, x);
+                assertMatches(b, y);
+            }
+        }
+    }
+
+    @Test
+    void binaryOperationsAcrossHighKeys() {
+        BitSet a = randomSet(30_000, 1 << 20, 1);
+        BitSet b = randomSet(3_000, 1 << 20, 2);
+        b.set(0, 10_000);
+        CompressedBitmap x = bitmapOf(a);
+        CompressedBitmap y = bitmapOf(b);
+
+        assertMatches(and(a, b), x.and(y));
+        assertMatches(or(a, b), x.or(y));
+        assertMatches(andNot(a, b), x.andNot(y));
+        assertMatches(andNot(b, a), y.andNot(x));
+    }
+
+    @Test
+    void removeShrinksBitmapBackToArray() {
+        BitSet expected = new BitSet();
+        expected.set(0, CompressedBitmap.ARRAY_MAX + 1);
+        CompressedBitmap bitmap = bitmapOf(expected);
+
+        for (int value = 0; value <= CompressedBitmap.ARRAY_MAX; value += 2) {
+            bitmap.remove(value);
+            expected.clear(value);
+        }
+        assertMatches(expected, bitmap);
+        // Operations on the shrunk container still agree after it switched representation.
+        BitSet other = randomSet(CompressedBitmap.ARRAY_MAX + 100, 65_536, 5);
+        assertMatches(or(expected, other), bitmap.or(bitmapOf(other)));
+        assertMatches(and(expected, other), bitmap.and(bitmapOf(other)));
+    }
+
+    @Test
+    void removeLastValueEmptiesBitmap() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(70_000);
+        bitmap.remove(1);
+        bitmap.remove(-1);
+        assertTrue(bitmap.contains(70_000));
+
+        bitmap.remove(70_000);
+        assertTrue(bitmap.isEmpty());
+        assertFalse(bitmap.contains(70_000));
+        assertEquals(0, bitmap.cardinality());
+    }
+
+    @Test
+    void randomAddRemoveMatchesBitSet() {
+        Random random = new Random(7);
+        BitSet expected = new BitSet();
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 200_000; i++) {
+            // Skewed towards a few containers so they repeatedly cross the switch in both directions.
+            int value = random.nextInt(4) == 0 ? random.nextInt(1 << 18) : random.nextInt(9_000);
+            if (random.nextInt(5) < 3) {
+                bitmap.add(value);
+                expected.set(value);
+            } else {
+                bitmap.remove(value);
+                expected.clear(value);
+            }
+        }
+        assertMatches(expected, bitmap);
+    }
+
+    private static void assertMatches(BitSet expected, CompressedBitmap actual) {
+        assertArrayEquals(expected.stream().toArray(), actual.toArray());
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+    }
+
+    private static CompressedBitmap bitmapOf(BitSet values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        values.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static BitSet randomSet(int cardinality, int bound, long seed) {
+        Random random = new Random(seed);
+        BitSet set = new BitSet();
+        while (set.cardinality() < cardinality) {
+            set.set(random.nextInt(bound));
+        }
+        return set;
+    }
+
+    private static BitSet and(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result;
+    }
+
+    private static BitSet or(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.or(b);
+        return result;
+    }
+
+    private static BitSet andNot(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.andNot(b);
+        return result;
+    }
+}
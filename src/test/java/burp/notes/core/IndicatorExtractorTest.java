@@ -0,0 +1,68 @@
+package burp.notes.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndicatorExtractorTest {
+    @Test
+    void extractsUrlHostsAndPaths() {
+        Set<String> indicators = IndicatorExtractor.extract(
+                "IDOR at https://user:pw@API.Example.com:8443/api/v1/orders?id=2#x, see also http://10.0.0.5/admin.");
+
+        assertEquals(Set.of("api.example.com", "/api/v1/orders", "10.0.0.5", "/admin"), indicators);
+    }
+
+    @Test
+    void extractsBareHostsWithKnownTlds() {
+        Set<String> indicators = IndicatorExtractor.extract(
+                "Scope: admin.example.org, staging.acme.io and jenkins.corp.local (not www.acme.co.uk.).");
+
+        assertEquals(Set.of("admin.example.org", "staging.acme.io", "jenkins.corp.local", "www.acme.co.uk"),
+                indicators);
+    }
+
+    @Test
+    void ignoresCodeAndFileNames() {
+        Set<String> indicators = IndicatorExtractor.extract("Payload reads document.cookie and sets "
+                + "window.location.href; the API uses req.body and JSON.parse. See app.js, README.md, "
+                + "config.yaml, user.home, exploit.py and Burp.app for details. Math.max(a.b, c.d)");
+
+        assertTrue(indicators.isEmpty(), indicators.toString());
+    }
+
+    @Test
+    void ignoresEmailAddressesAndPathSegments() {
+        Set<String> indicators = IndicatorExtractor.extract("Contact alice@example.com or read /static/example.com");
+
+        assertTrue(indicators.isEmpty(), indicators.toString());
+    }
+
+    @Test
+    void extractsFrontMatterAndMarkedText() {
+        Set<String> indicators = IndicatorExtractor.extract("---\n"
+                + "host: [intranet.acme.zz]\n"
+                + "indicators: [X-Debug-Token, abc]\n"
+                + "---\n"
+                + "The ==session_id== cookie and ==ok== are reflected.\n");
+
+        assertEquals(Set.of("intranet.acme.zz", "x-debug-token", "session_id"), indicators);
+    }
+
+    @Test
+    void dropsTooShortAndTooLongValues() {
+        String longValue = "a".repeat(IndicatorExtractor.MAX_LENGTH + 1);
+        Set<String> indicators = IndicatorExtractor.extract("==abc== ==abcd== ==" + longValue + "==");
+
+        assertEquals(Set.of("abcd"), indicators);
+    }
+
+    @Test
+    void emptyInput() {
+        assertTrue(IndicatorExtractor.extract(null).isEmpty());
+        assertTrue(IndicatorExtractor.extract("").isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+package burp.notes.core;
+
+import burp.notes.model.NoteMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetadataQueryTest {
+    private final MetadataIndex index = new MetadataIndex();
+
+    MetadataQueryTest() {
+        add("sqli", "severity", "high", "host", "api.example.com", "tags", "injection", "status", "open");
+        add("xss", "severity", "medium", "host", "www.example.com", "tags", "injection", "status", "fixed");
+        add("idor", "severity", "high", "host", "api.example.com", "tags", "auth", "status", "fixed");
+        add("csrf", "severity", "low", "host", "www.example.com", "tags", "auth", "engagement", "Acme Q3");
+        add("recon");
+    }
+
+    @Test
+    void singleTermsAndBareWords() {
+        assertEquals(List.of("sqli", "idor"), index.query("severity:high"));
+        assertEquals(List.of("sqli", "idor"), index.query("SEVERITY:HIGH"));
+        assertEquals(List.of("idor", "csrf"), index.query("auth"));
+        assertEquals(List.of("idor", "csrf"), index.query("tag:auth"));
+        assertEquals(List.of(), index.query("severity:critical"));
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        assertEquals(List.of("sqli", "idor", "csrf"), index.query("severity:high OR severity:low AND auth"));
+        assertEquals(List.of("idor", "csrf"), index.query("(severity:high OR severity:low) AND auth"));
+    }
+
+    @Test
+    void adjacentTermsAreImplicitlyAnded() {
+        assertEquals(List.of("idor"), index.query("auth severity:high"));
+        assertEquals(List.of("idor"), index.query("auth AND severity:high"));
+        assertEquals(List.of("sqli", "csrf"), index.query("injection status:open OR auth host:www.example.com"));
+    }
+
+    @Test
+    void notSubtractsFromOtherTerms() {
+        assertEquals(List.of("sqli"), index.query("severity:high NOT status:fixed"));
+        assertEquals(List.of("sqli"), index.query("NOT status:fixed AND severity:high"));
+        assertEquals(List.of("sqli", "idor"), index.query("NOT NOT severity:high"));
+    }
+
+    @Test
+    void pureNotMatchesAgainstAllNotes() {
+        assertEquals(List.of("sqli", "csrf", "recon"), index.query("NOT status:fixed"));
+        assertEquals(List.of("recon"), index.query("NOT severity:high NOT severity:medium NOT severity:low"));
+    }
+
+    @Test
+    void keywordsAreCaseInsensitive() {
+        assertEquals(List.of("idor"), index.query("auth and not host:www.example.com"));
+        assertEquals(List.of("sqli", "xss", "csrf"), index.query("injection or severity:low"));
+    }
+
+    @Test
+    void quotedValuesMayContainSpacesAndColons() {
+        assertEquals(List.of("csrf"), index.query("engagement:\"Acme Q3\""));
+        assertEquals(List.of("csrf"), index.query("\"engagement:acme q3\""));
+        add("port", "host", "api.example.com:8443");
+        assertEquals(List.of("port"), index.query("host:\"api.example.com:8443\""));
+    }
+
+    @Test
+    void removedNotesNoLongerMatch() {
+        index.remove("idor");
+        assertEquals(List.of("sqli"), index.query("severity:high"));
+        assertEquals(List.of("xss", "csrf", "recon"), index.query("NOT severity:high"));
+    }
+
+    @Test
+    void rejectsMalformedQueries() {
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse("   "));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse("(auth"));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse("auth)"));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse("auth AND"));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse("OR auth"));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse("NOT"));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse("severity:"));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse(":high"));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse("engagement:\"Acme"));
+        assertThrows(IllegalArgumentException.class, () -> MetadataQuery.parse("()"));
+    }
+
+    private void add(String title, String... fieldValues) {
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        for (int i = 0; i < fieldValues.length; i += 2) {
+            fields.put(fieldValues[i], List.of(fieldValues[i + 1]));
+        }
+        index.update(title, new NoteMetadata(fields));
+    }
+}
@@ -0,0 +1,64 @@
+package burp.notes.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteIndexTest {
+    @Test
+    void tokenizeSplitsOnNonWordCharactersAndLowerCases() {
+        assertEquals(Set.of("idor", "on", "api", "v1", "orders", "id", "42"),
+                NoteIndex.tokenize("IDOR on /api/v1/orders?id=42"));
+        assertEquals(Set.of("debug", "token"), NoteIndex.tokenize("X-Debug-Token"));
+    }
+
+    @Test
+    void tokenizeDropsSingleCharactersAndKeepsUnicodeLetters() {
+        assertEquals(Set.of("caf\u00e9", "\u00fcber"), NoteIndex.tokenize("a caf\u00e9 b \u00fcber 1"));
+        assertTrue(NoteIndex.tokenize("").isEmpty());
+        assertTrue(NoteIndex.tokenize(" - ! ").isEmpty());
+    }
+
+    @Test
+    void searchRequiresEveryWord() {
+        NoteIndex index = new NoteIndex();
+        index.add("login", "SQL injection in the login form");
+        index.add("search", "Reflected XSS in search, login required");
+
+        assertEquals(Set.of("login", "search"), index.search("LOGIN"));
+        assertEquals(Set.of("search"), index.search("login xss"));
+        assertEquals(Set.of(), index.search("login csrf"));
+        assertEquals(Set.of(), index.search("!"));
+    }
+
+    @Test
+    void roundTripsThroughIndexFile(@TempDir Path directory) throws IOException {
+        NoteIndex index = new NoteIndex();
+        index.add("b", "token leak");
+        index.add("a", "token reuse");
+        Path file = directory.resolve(NoteIndex.INDEX_FILE_NAME);
+        index.writeTo(file);
+
+        assertEquals(List.of("leak\tb", "reuse\ta", "token\ta\tb"), Files.readAllLines(file));
+        NoteIndex read = NoteIndex.readFrom(file);
+        assertEquals(Set.of("a", "b"), read.search("token"));
+        assertEquals(3, read.termCount());
+    }
+
+    @Test
+    void rejectsMalformedIndexFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve(NoteIndex.INDEX_FILE_NAME);
+        Files.writeString(file, "orphan\n");
+
+        assertThrows(IOException.class, () -> NoteIndex.readFrom(file));
+    }
+}
@@ -0,0 +1,63 @@
+package burp.notes.core;
+
+import burp.notes.model.Note;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NoteManagerTest {
+    @TempDir
+    Path notesDirectory;
+
+    @Test
+    void rebuildIndexesFrontMatter() throws IOException {
+        write("login", "---\nseverity: high\n---\nbody\n");
+        write("upload", "---\nseverity: low\n---\nbody\n");
+        NoteManager manager = new NoteManager(notesDirectory, NoteLogger.SILENT);
+
+        manager.rebuildMetadataIndex(manager.getAllNoteTitles());
+
+        assertEquals(List.of("login"), manager.getMetadataIndex().query("severity:high"));
+        assertEquals(2, manager.getMetadataIndex().size());
+    }
+
+    @Test
+    void updatesDuringRebuildAreKept() throws IOException {
+        write("a", "---\nseverity: low\n---\n");
+        write("b", "---\nseverity: low\n---\n");
+        write("c", "---\nseverity: low\n---\n");
+        // Saves and deletes other notes while the rebuild is reading "b".
+        NoteManager manager = new NoteManager(notesDirectory, NoteLogger.SILENT) {
+            private boolean updated;
+
+            @Override
+            public Path getNoteFile(String title) {
+                if (title.equals("b") && !updated) {
+                    updated = true;
+                    saveNote(new Note("a", "---\nseverity: high\n---\n"));
+                    saveNote(new Note("d", "---\nseverity: high\n---\n"));
+                    deleteNote("c");
+                }
+                return super.getNoteFile(title);
+            }
+        };
+
+        manager.rebuildMetadataIndex(List.of("a", "b", "c"));
+
+        MetadataIndex index = manager.getMetadataIndex();
+        assertEquals(List.of("a", "d"), index.query("severity:high"));
+        assertEquals(List.of("b"), index.query("severity:low"));
+        assertEquals(3, index.size());
+    }
+
+    private void write(String title, String content) throws IOException {
+        Files.writeString(notesDirectory.resolve(title + NoteManager.NOTE_EXTENSION), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+package burp.notes.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrontMatterTest {
+    @Test
+    void parsesScalarsAndLists() {
+        String note = "---\n"
+                + "severity: high\n"
+                + "host: [api.example.com, 'www.example.com']\n"
+                + "tags:\n"
+                + "  - idor\n"
+                + "  - \"auth bypass\"\n"
+                + "status: open # triaged\n"
+                + "---\n"
+                + "# Body\n";
+        FrontMatter frontMatter = FrontMatter.parse(note);
+        NoteMetadata metadata = frontMatter.getMetadata();
+
+        assertEquals(Severity.HIGH, metadata.getSeverity());
+        assertEquals(List.of("api.example.com", "www.example.com"), metadata.getHosts());
+        assertEquals(List.of("idor", "auth bypass"), metadata.getTags());
+        assertEquals("open", metadata.getStatus());
+        assertEquals("# Body\n", note.substring(frontMatter.getBodyOffset()));
+    }
+
+    @Test
+    void bodyOffsetHandlesLineTerminatorsAndBom() throws IOException {
+        for (String newline : new String[] {"\n", "\r\n", "\r"}) {
+            for (String prefix : new String[] {"", "\uFEFF"}) {
+                String note = prefix + "---" + newline + "tags: a" + newline + "---" + newline + "Body";
+                FrontMatter parsed = FrontMatter.parse(note);
+                FrontMatter read = FrontMatter.read(new BufferedReader(new StringReader(note)));
+
+                assertEquals("Body", note.substring(parsed.getBodyOffset()));
+                assertEquals(parsed.getBodyOffset(), read.getBodyOffset());
+                assertEquals(List.of("a"), read.getMetadata().getTags());
+            }
+        }
+    }
+
+    @Test
+    void closingDelimiterAtEndOfNote() {
+        String note = "---\nseverity: low\n...";
+        assertEquals(note.length(), FrontMatter.parse(note).getBodyOffset());
+    }
+
+    @Test
+    void horizontalRuleIsNotFrontMatter() {
+        assertNone("---\nFindings in login\n---\nMore text");
+        assertNone("---\n\n---\n");
+        assertNone("--- \n- just a list\n---\n");
+    }
+
+    @Test
+    void missingOrUnclosedDelimiterIsNotFrontMatter() {
+        assertNone("# Title\n---\nseverity: high\n---\n");
+        assertNone("---\nseverity: high\n");
+        assertNone("");
+        assertNone(null);
+    }
+
+    @Test
+    void fieldAliasesAreNormalized() {
+        NoteMetadata metadata = FrontMatter.parse("---\nTag: idor\nHosts: a.example.com\n---\n").getMetadata();
+
+        assertEquals(List.of("idor"), metadata.getTags());
+        assertEquals(List.of("a.example.com"), metadata.getHosts());
+    }
+
+    @Test
+    void aliasedFieldsAreMerged() {
+        NoteMetadata metadata = FrontMatter.parse("---\ntags: [idor, auth]\nTag: xss\nhost: a.example.com\nhosts: b.example.com\n---\n")
+                .getMetadata();
+
+        assertEquals(List.of("idor", "auth", "xss"), metadata.getTags());
+        assertEquals(List.of("a.example.com", "b.example.com"), metadata.getHosts());
+        assertEquals(List.of("tags", "host"), List.copyOf(metadata.fieldNames()));
+    }
+
+    private static void assertNone(String note) {
+        FrontMatter frontMatter = FrontMatter.parse(note);
+        assertEquals(0, frontMatter.getBodyOffset());
+        assertTrue(frontMatter.getMetadata().isEmpty());
+    }
+}
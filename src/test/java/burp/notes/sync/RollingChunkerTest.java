@@ -0,0 +1,107 @@
+package burp.notes.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingChunkerTest {
+    private final RollingChunker chunker = new RollingChunker();
+
+    @Test
+    void chunksCoverInputWithinSizeBounds() {
+        byte[] data = randomBytes(1024 * 1024, 1);
+        List<Chunk> chunks = chunker.split(data);
+
+        int offset = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            assertEquals(offset, chunk.getOffset());
+            assertTrue(chunk.getLength() <= RollingChunker.DEFAULT_MAX_SIZE);
+            if (i < chunks.size() - 1) {
+                assertTrue(chunk.getLength() >= RollingChunker.DEFAULT_MIN_SIZE);
+            }
+            offset += chunk.getLength();
+        }
+        assertEquals(data.length, offset);
+        // 1 MiB at an 8 KiB average: far from both one chunk per min and one per max size.
+        assertTrue(chunks.size() > 40 && chunks.size() < 400, chunks.size() + " chunks");
+    }
+
+    @Test
+    void smallAndEmptyInputs() {
+        assertEquals(0, chunker.split(new byte[0]).size());
+        assertEquals(1, chunker.split(new byte[RollingChunker.DEFAULT_MIN_SIZE]).size());
+    }
+
+    @Test
+    void splitIsDeterministic() {
+        byte[] data = randomBytes(200 * 1024, 2);
+        assertEquals(hashes(chunker.split(data)), hashes(chunker.split(data.clone())));
+    }
+
+    @Test
+    void insertOnlyChangesNearbyChunks() {
+        byte[] data = randomBytes(512 * 1024, 3);
+        byte[] edited = insert(data, data.length / 2, "inserted text".getBytes());
+
+        assertFewChunksChanged(chunker.split(data), chunker.split(edited));
+    }
+
+    @Test
+    void prependOnlyChangesFirstChunks() {
+        byte[] data = randomBytes(512 * 1024, 4);
+        byte[] edited = insert(data, 0, "# New heading\n".getBytes());
+
+        assertFewChunksChanged(chunker.split(data), chunker.split(edited));
+    }
+
+    @Test
+    void uniformInputFallsBackToMaxSize() {
+        List<Chunk> chunks = chunker.split(new byte[200 * 1024]);
+        // No content-defined boundary in all zeros, so every chunk but the last is cut at the maximum.
+        for (int i = 0; i < chunks.size() - 1; i++) {
+            assertEquals(RollingChunker.DEFAULT_MAX_SIZE, chunks.get(i).getLength());
+        }
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new RollingChunker(2048, 6000, 65536));
+        assertThrows(IllegalArgumentException.class, () -> new RollingChunker(0, 8192, 65536));
+        assertThrows(IllegalArgumentException.class, () -> new RollingChunker(2048, 8192, 4096));
+    }
+
+    private static void assertFewChunksChanged(List<Chunk> before, List<Chunk> after) {
+        Set<String> original = new HashSet<>(hashes(before));
+        long changed = after.stream().filter(chunk -> !original.contains(chunk.getHash())).count();
+        assertTrue(changed <= 2, changed + " of " + after.size() + " chunks changed");
+    }
+
+    private static List<String> hashes(List<Chunk> chunks) {
+        List<String> hashes = new ArrayList<>();
+        chunks.forEach(chunk -> hashes.add(chunk.getHash()));
+        return hashes;
+    }
+
+    private static byte[] insert(byte[] data, int at, byte[] extra) {
+        byte[] result = new byte[data.length + extra.length];
+        System.arraycopy(data, 0, result, 0, at);
+        System.arraycopy(extra, 0, result, at, extra.length);
+        System.arraycopy(data, at, result, at + extra.length, data.length - at);
+        return result;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,169 @@
+package burp.notes.sync;
+
+import burp.notes.core.NoteLogger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncEngineTest {
+    @TempDir
+    Path alice;
+    @TempDir
+    Path bob;
+    @TempDir
+    Path shared;
+
+    @Test
+    void pullsNoteCreatedByOtherReplica() throws IOException {
+        SyncEngine aliceEngine = engine(alice, "alice");
+        SyncEngine bobEngine = engine(bob, "bob");
+        write(alice, "login", "# Login\nSQLi in username\n");
+
+        SyncReport pushed = aliceEngine.sync();
+        SyncReport pulled = bobEngine.sync();
+
+        assertEquals(1, pushed.getPushed());
+        assertEquals(1, pulled.getPulled());
+        assertTrue(pulled.hasLocalChanges());
+        assertEquals("# Login\nSQLi in username\n", read(bob, "login"));
+        assertFalse(aliceEngine.sync().hasLocalChanges());
+    }
+
+    @Test
+    void transfersOnlyChangedChunksAfterInsert() throws IOException {
+        SyncEngine aliceEngine = engine(alice, "alice");
+        SyncEngine bobEngine = engine(bob, "bob");
+        String content = randomText(256 * 1024);
+        write(alice, "scan", content);
+        aliceEngine.sync();
+        bobEngine.sync();
+
+        int middle = content.indexOf('\n', content.length() / 2) + 1;
+        String edited = content.substring(0, middle) + "Inserted finding: IDOR on /api/users\n"
+                + content.substring(middle);
+        write(alice, "scan", edited);
+
+        SyncReport pushed = aliceEngine.sync();
+        SyncReport pulled = bobEngine.sync();
+
+        // An insert touches one or two chunks, each at most 64 KiB and usually around 8 KiB.
+        assertTrue(pushed.getBytesUploaded() < content.length() / 4, "uploaded " + pushed.getBytesUploaded());
+        assertTrue(pulled.getBytesDownloaded() < content.length() / 4, "downloaded " + pulled.getBytesDownloaded());
+        assertTrue(pulled.getBytesReused() > content.length() / 2, "reused " + pulled.getBytesReused());
+        assertEquals(edited, read(bob, "scan"));
+    }
+
+    @Test
+    void concurrentEditsKeepOtherVersionAsConflictCopy() throws IOException {
+        SyncEngine aliceEngine = engine(alice, "alice");
+        SyncEngine bobEngine = engine(bob, "bob");
+        write(alice, "xss", "Reflected XSS\n");
+        aliceEngine.sync();
+        bobEngine.sync();
+
+        write(alice, "xss", "Reflected XSS in q parameter\n");
+        write(bob, "xss", "Reflected XSS, fixed in build 42\n");
+        aliceEngine.sync();
+        SyncReport report = bobEngine.sync();
+
+        assertEquals(List.of("xss"), report.getConflicts());
+        assertEquals("Reflected XSS, fixed in build 42\n", read(bob, "xss"));
+        List<Path> copies = conflictCopies(bob, "xss");
+        assertEquals(1, copies.size());
+        assertEquals("Reflected XSS in q parameter\n", Files.readString(copies.get(0), StandardCharsets.UTF_8));
+
+        // The conflict copy is shared on the next run like any other note.
+        bobEngine.sync();
+        aliceEngine.sync();
+        assertEquals("Reflected XSS, fixed in build 42\n", read(alice, "xss"));
+        assertEquals(1, conflictCopies(alice, "xss").size());
+    }
+
+    @Test
+    void divergentEditsUnderSharedReplicaIdAreConflicts() throws IOException {
+        // Two testers working from copies of one directory that sets the same replica.id.
+        SyncEngine aliceEngine = engine(alice, "alice");
+        write(alice, "auth", "Login form\n");
+        aliceEngine.sync();
+        SyncEngine cloneEngine = engine(bob, "alice");
+        cloneEngine.sync();
+
+        write(alice, "auth", "Login form, rate limit missing\n");
+        write(bob, "auth", "Login form, MFA bypass\n");
+        aliceEngine.sync();
+        SyncReport report = cloneEngine.sync();
+
+        assertEquals(List.of("auth"), report.getConflicts());
+        assertEquals("Login form, MFA bypass\n", read(bob, "auth"));
+        List<Path> copies = conflictCopies(bob, "auth");
+        assertEquals(1, copies.size());
+        assertEquals("Login form, rate limit missing\n", Files.readString(copies.get(0), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void generatedReplicaIdIsNotStoredInNotesDirectory() {
+        Path idFile = SyncEngine.replicaIdFile(alice);
+
+        assertFalse(idFile.startsWith(alice));
+        assertFalse(idFile.equals(SyncEngine.replicaIdFile(bob)));
+    }
+
+    @Test
+    void propagatesDeletion() throws IOException {
+        SyncEngine aliceEngine = engine(alice, "alice");
+        SyncEngine bobEngine = engine(bob, "bob");
+        write(alice, "scratch", "temporary\n");
+        aliceEngine.sync();
+        bobEngine.sync();
+        assertTrue(Files.exists(bob.resolve("scratch.md")));
+
+        Files.delete(alice.resolve("scratch.md"));
+        aliceEngine.sync();
+        SyncReport report = bobEngine.sync();
+
+        assertEquals(1, report.getDeleted());
+        assertFalse(Files.exists(bob.resolve("scratch.md")));
+        assertFalse(bobEngine.sync().hasLocalChanges());
+    }
+
+    private SyncEngine engine(Path local, String replicaId) throws IOException {
+        return new SyncEngine(local, shared, replicaId, NoteLogger.SILENT);
+    }
+
+    private static void write(Path directory, String name, String content) throws IOException {
+        Files.writeString(directory.resolve(name + ".md"), content, StandardCharsets.UTF_8);
+    }
+
+    private static String read(Path directory, String name) throws IOException {
+        return Files.readString(directory.resolve(name + ".md"), StandardCharsets.UTF_8);
+    }
+
+    private static List<Path> conflictCopies(Path directory, String name) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(name + ".conflict-")).toList();
+        }
+    }
+
+    private static String randomText(int length) {
+        String[] words = {"request", "header", "token", "session", "admin", "payload", "endpoint", "cookie",
+                "redirect", "upload", "param", "response"};
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(length + 64);
+        while (sb.length() < length) {
+            sb.append(words[random.nextInt(words.length)]).append(random.nextInt(10000));
+            sb.append(random.nextInt(8) == 0 ? '\n' : ' ');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package burp.notes.sync;
+
+import org.junit.jupiter.api.Test;
+
+import static burp.notes.sync.VersionVector.Order.AFTER;
+import static burp.notes.sync.VersionVector.Order.BEFORE;
+import static burp.notes.sync.VersionVector.Order.CONCURRENT;
+import static burp.notes.sync.VersionVector.Order.EQUAL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VersionVectorTest {
+    @Test
+    void emptyVectorsAreEqual() {
+        assertEquals(EQUAL, VersionVector.EMPTY.compareTo(VersionVector.EMPTY));
+        assertEquals(EQUAL, VersionVector.parse("a:1,b:2").compareTo(VersionVector.parse("b:2,a:1")));
+    }
+
+    @Test
+    void incrementMovesAhead() {
+        VersionVector base = VersionVector.parse("alice:2,bob:1");
+        VersionVector next = base.increment("bob");
+
+        assertEquals(BEFORE, base.compareTo(next));
+        assertEquals(AFTER, next.compareTo(base));
+        assertEquals(AFTER, base.compareTo(VersionVector.EMPTY));
+        assertEquals(BEFORE, VersionVector.EMPTY.compareTo(base));
+    }
+
+    @Test
+    void missingReplicaCountsAsZero() {
+        assertEquals(BEFORE, VersionVector.parse("alice:1").compareTo(VersionVector.parse("alice:1,bob:1")));
+        assertEquals(EQUAL, VersionVector.parse("alice:1,bob:0").compareTo(VersionVector.parse("alice:1")));
+    }
+
+    @Test
+    void divergentUpdatesAreConcurrent() {
+        VersionVector base = VersionVector.parse("alice:1");
+        VersionVector alice = base.increment("alice");
+        VersionVector bob = base.increment("bob");
+
+        assertEquals(CONCURRENT, alice.compareTo(bob));
+        assertEquals(CONCURRENT, bob.compareTo(alice));
+        assertEquals(CONCURRENT, VersionVector.parse("alice:1").compareTo(VersionVector.parse("bob:1")));
+    }
+
+    @Test
+    void mergeDominatesBothSides() {
+        VersionVector alice = VersionVector.parse("alice:3,bob:1");
+        VersionVector bob = VersionVector.parse("alice:1,bob:2,carol:1");
+        VersionVector merged = alice.merge(bob);
+
+        assertEquals(VersionVector.parse("alice:3,bob:2,carol:1"), merged);
+        assertEquals(AFTER, merged.compareTo(alice));
+        assertEquals(AFTER, merged.compareTo(bob));
+    }
+
+    @Test
+    void parseRoundTripsToString() {
+        VersionVector vector = VersionVector.parse("bob:2,alice:10");
+
+        assertEquals("alice:10,bob:2", vector.toString());
+        assertEquals(vector, VersionVector.parse(vector.toString()));
+        assertEquals(VersionVector.EMPTY, VersionVector.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> VersionVector.parse("alice"));
+    }
+}